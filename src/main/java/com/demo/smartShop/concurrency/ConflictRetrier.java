@@ -0,0 +1,92 @@
+package com.demo.smartShop.concurrency;
+
+import com.demo.smartShop.exception.ConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PessimisticLockException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry of transactions that fail on a concurrent update.
+ *
+ * Metrics, tagged with the operation name:
+ * smartshop.concurrency.conflicts (every conflict), smartshop.concurrency.retries
+ * (attempts made again) and smartshop.concurrency.retries.exhausted (answered 409).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConflictRetrier {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${smartshop.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${smartshop.retry.initial-backoff:20ms}")
+    private Duration initialBackoff;
+
+    @Value("${smartshop.retry.max-backoff:200ms}")
+    private Duration maxBackoff;
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Retrying inside a transaction would reuse its stale state: let the outermost caller retry
+            return action.get();
+        }
+
+        long backoff = initialBackoff.toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                counter("smartshop.concurrency.conflicts", operation).increment();
+                if (attempt >= maxAttempts) {
+                    counter("smartshop.concurrency.retries.exhausted", operation).increment();
+                    log.warn("{} still conflicting after {} attempts", operation, attempt);
+                    throw new ConflictException("Concurrent modification, please retry", e);
+                }
+                counter("smartshop.concurrency.retries", operation).increment();
+                sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+                backoff = Math.min(backoff * 2, maxBackoff.toMillis());
+            }
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name).tag("operation", operation).register(meterRegistry);
+    }
+
+    private static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof PessimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting to retry");
+        }
+    }
+}
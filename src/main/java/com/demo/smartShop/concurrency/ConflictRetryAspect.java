@@ -0,0 +1,40 @@
+package com.demo.smartShop.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link RetryOnConflict}. Ordered before the transaction interceptor so
+ * that every attempt opens, and rolls back, its own transaction.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class ConflictRetryAspect {
+
+    private final ConflictRetrier conflictRetrier;
+
+    @Around("@annotation(com.demo.smartShop.concurrency.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        return conflictRetrier.execute(operation, () -> proceed(joinPoint));
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // Service methods declare no checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+}
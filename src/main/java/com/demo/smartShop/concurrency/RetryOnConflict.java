@@ -0,0 +1,16 @@
+package com.demo.smartShop.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-run a transactional service method when it loses an optimistic or pessimistic
+ * locking race, with bounded backoff. Each attempt runs in a new transaction; when the
+ * method joins a caller's transaction, the caller is the one retried.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -8,7 +8,7 @@ import com.demo.smartShop.entity.enums.UserRole;
 import com.demo.smartShop.repository.ClientRepository;
 import com.demo.smartShop.repository.ProductRepository;
 import com.demo.smartShop.repository.UserRepository;
-import com.demo.smartShop.util.PasswordUtil;
+import com.demo.smartShop.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -25,6 +25,7 @@ public class DataSeeder {
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
     private final ProductRepository productRepository;
+    private final PasswordHasher passwordHasher;
 
     @PostConstruct
     public void seedData() {
@@ -41,7 +42,7 @@ public class DataSeeder {
         if (userRepository.findByUsername("kawtar").isEmpty()) {
             User admin = User.builder()
                     .username("kawtar")
-                    .password(PasswordUtil.hash("kawtar123"))
+                    .password(passwordHasher.hash("kawtar123"))
                     .role(UserRole.ADMIN)
                     .build();
 
@@ -72,7 +73,7 @@ public class DataSeeder {
 
         User ibmUser = User.builder()
                 .username("ibm")
-                .password(PasswordUtil.hash("IBM123"))
+                .password(passwordHasher.hash("IBM123"))
                 .role(UserRole.CLIENT)
                 .client(savedIbm)
                 .build();
@@ -92,7 +93,7 @@ public class DataSeeder {
 
         User hpsUser = User.builder()
                 .username("hps")
-                .password(PasswordUtil.hash("HPS123"))
+                .password(passwordHasher.hash("HPS123"))
                 .role(UserRole.CLIENT)
                 .client(savedHps)
                 .build();
@@ -112,7 +113,7 @@ public class DataSeeder {
 
         User microsoftUser = User.builder()
                 .username("microsoft")
-                .password(PasswordUtil.hash("MICROSOFT123"))
+                .password(passwordHasher.hash("MICROSOFT123"))
                 .role(UserRole.CLIENT)
                 .client(savedMicrosoft)
                 .build();
@@ -132,7 +133,7 @@ public class DataSeeder {
 
         User oracleUser = User.builder()
                 .username("oracle")
-                .password(PasswordUtil.hash("ORACLE123"))
+                .password(passwordHasher.hash("ORACLE123"))
                 .role(UserRole.CLIENT)
                 .client(savedOracle)
                 .build();
@@ -152,7 +153,7 @@ public class DataSeeder {
 
         User capgeminiUser = User.builder()
                 .username("capgemini")
-                .password(PasswordUtil.hash("CAPGEMINI123"))
+                .password(passwordHasher.hash("CAPGEMINI123"))
                 .role(UserRole.CLIENT)
                 .client(savedCapgemini)
                 .build();
@@ -172,7 +173,7 @@ public class DataSeeder {
 
         User accentureUser = User.builder()
                 .username("accenture")
-                .password(PasswordUtil.hash("ACCENTURE123"))
+                .password(passwordHasher.hash("ACCENTURE123"))
                 .role(UserRole.CLIENT)
                 .client(savedAccenture)
                 .build();
@@ -0,0 +1,53 @@
+package com.demo.smartShop.config;
+
+import com.demo.smartShop.util.BeforeCommitResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps the reads of a session on the primary for a while after it wrote, so
+ * replica lag never hides a client's own changes from it.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String PRIMARY_UNTIL = "smartshop.readPrimaryUntil";
+
+    private final Duration window;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        Object until = session != null ? session.getAttribute(PRIMARY_UNTIL) : null;
+        ReplicaRoutingDataSource.beginRequest(until instanceof Long millis && millis > System.currentTimeMillis());
+        try {
+            // Pinned before the response is committed, so that a shared session store has it by the next request
+            chain.doFilter(request, new BeforeCommitResponseWrapper(response, () -> pinIfWrote(request)));
+            pinIfWrote(request);
+        } finally {
+            ReplicaRoutingDataSource.endRequest();
+        }
+    }
+
+    // At most once per request; the session is looked up again as the request may have created it (login)
+    private void pinIfWrote(HttpServletRequest request) {
+        if (request.getAttribute(PRIMARY_UNTIL) != null || !ReplicaRoutingDataSource.wroteInRequest()) {
+            return;
+        }
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            long until = System.currentTimeMillis() + window.toMillis();
+            session.setAttribute(PRIMARY_UNTIL, until);
+            request.setAttribute(PRIMARY_UNTIL, until);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.demo.smartShop.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions to the replicas listed under smartshop.datasource.replicas.
+ * Without replicas this configuration is skipped and the single spring.datasource is used.
+ *
+ * Every pool is a Hikari pool named after its route (primary, replica-1, ...) and reports
+ * the hikaricp.* metrics tagged with that pool name.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty("smartshop.datasource.replicas[0].url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties primary, ReplicaRoutingProperties routing,
+                                 Environment environment) {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        pools.put(ReplicaRoutingDataSource.PRIMARY, pool(ReplicaRoutingDataSource.PRIMARY, primary.getUrl(),
+                primary.getUsername(), primary.getPassword(), primary, environment));
+        for (ReplicaRoutingProperties.Replica replica : routing.getReplicas()) {
+            String name = "replica-" + pools.size();
+            pools.put(name, pool(name, replica.getUrl(), replica.getUsername(), replica.getPassword(),
+                    primary, environment));
+        }
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(pools);
+        routingDataSource.afterPropertiesSet();
+        // Defers the route choice to the first statement, once the transaction is set up
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                dataSource.unwrap(ReplicaRoutingDataSource.class).bindTo(registry);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Routing data source not found", e);
+            }
+        };
+    }
+
+    /**
+     * Hibernate holds its connection for the whole session by default, which with
+     * open-in-view spans the request: release it after each transaction instead so
+     * every transaction picks its own route.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    @ConditionalOnProperty("smartshop.datasource.read-your-writes-window")
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaRoutingProperties routing) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(routing.getReadYourWritesWindow()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password,
+                                         DataSourceProperties primary, Environment environment) {
+        HikariDataSource pool = primary.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        // Same pool settings (spring.datasource.hikari.*) for every route
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
@@ -0,0 +1,114 @@
+package com.demo.smartShop.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends connections of read-only transactions to the replicas (round robin) and
+ * everything else to the primary. Must sit behind a LazyConnectionDataSourceProxy
+ * so the connection is only picked once the transaction's read-only flag is known.
+ *
+ * Requests can pin their reads to the primary (read-your-writes), see {@link #beginRequest}.
+ *
+ * Metrics: hikaricp.* per pool (tagged pool=primary, replica-1, ...) and
+ * smartshop.datasource.connections.routed per route.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<RequestState> REQUEST = new ThreadLocal<>();
+
+    private final List<String> replicas;
+    private final Map<String, HikariDataSource> pools;
+    private final AtomicInteger next = new AtomicInteger();
+    // Set once bound to the meter registry, which is created after the data source
+    private volatile Map<String, Counter> routed = Map.of();
+
+    private static final class RequestState {
+        private final boolean pinnedToPrimary;
+        private boolean wrote;
+
+        private RequestState(boolean pinnedToPrimary) {
+            this.pinnedToPrimary = pinnedToPrimary;
+        }
+    }
+
+    /**
+     * @param pools the primary pool under {@link #PRIMARY}, then the replica pools in order
+     */
+    public ReplicaRoutingDataSource(Map<String, HikariDataSource> pools) {
+        this.pools = Map.copyOf(pools);
+        this.replicas = pools.keySet().stream().filter(route -> !PRIMARY.equals(route)).toList();
+        setTargetDataSources(Map.copyOf(pools));
+        setDefaultTargetDataSource(pools.get(PRIMARY));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        pools.values().forEach(pool -> pool.setMetricRegistry(registry));
+        routed = pools.keySet().stream()
+                .collect(Collectors.toMap(Function.identity(), route -> Counter
+                        .builder("smartshop.datasource.connections.routed")
+                        .tag("route", route)
+                        .register(registry)));
+    }
+
+    /**
+     * Start tracking the writes of the current request; its reads go to the
+     * primary when {@code pinnedToPrimary}.
+     */
+    public static void beginRequest(boolean pinnedToPrimary) {
+        REQUEST.set(new RequestState(pinnedToPrimary));
+    }
+
+    /**
+     * @return whether the current request opened a read-write transaction so far
+     */
+    public static boolean wroteInRequest() {
+        RequestState state = REQUEST.get();
+        return state != null && state.wrote;
+    }
+
+    /**
+     * Stop tracking the current request.
+     *
+     * @return whether it opened a read-write transaction
+     */
+    public static boolean endRequest() {
+        RequestState state = REQUEST.get();
+        REQUEST.remove();
+        return state != null && state.wrote;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        RequestState request = REQUEST.get();
+        String route;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (request != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                request.wrote = true;
+            }
+            route = PRIMARY;
+        } else if (request != null && request.pinnedToPrimary) {
+            route = PRIMARY;
+        } else {
+            route = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+        }
+        Counter counter = routed.get(route);
+        if (counter != null) {
+            counter.increment();
+        }
+        return route;
+    }
+}
@@ -0,0 +1,28 @@
+package com.demo.smartShop.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas behind the primary configured in spring.datasource.
+ */
+@Data
+@ConfigurationProperties("smartshop.datasource")
+public class ReplicaRoutingProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // How long the reads of a session stay on the primary after it wrote; 0 disables
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,58 @@
+package com.demo.smartShop.config;
+
+import com.demo.smartShop.repository.SessionRecordRepository;
+import com.demo.smartShop.security.InMemorySessionStore;
+import com.demo.smartShop.security.JdbcSessionStore;
+import com.demo.smartShop.security.SessionStore;
+import com.demo.smartShop.security.SessionStoreFilter;
+import com.demo.smartShop.security.SessionStoreSweeper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Shared server-side sessions: with smartshop.session.mode=store, the servlet session
+ * of every request is read from and written to a {@link SessionStore}, so instances
+ * behind a plain round-robin balancer share logins (with the JDBC store).
+ */
+@Configuration
+@EnableConfigurationProperties(SessionStoreProperties.class)
+@ConditionalOnProperty(name = "smartshop.session.mode", havingValue = "store")
+public class SessionStoreConfig {
+
+    @Bean
+    public SessionStore sessionStore(SessionStoreProperties properties, SessionRecordRepository repository,
+                                     PlatformTransactionManager transactionManager) {
+        if (properties.getType() == SessionStoreProperties.Type.MEMORY) {
+            return new InMemorySessionStore(properties.getShards());
+        }
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new JdbcSessionStore(repository, newTransaction);
+    }
+
+    @Bean
+    public SessionStoreSweeper sessionStoreSweeper(SessionStore store, SessionStoreProperties properties,
+                                                   MeterRegistry meterRegistry) {
+        return new SessionStoreSweeper(store, properties.getSweepBatchSize(), properties.getSweepMaxBatches(),
+                meterRegistry);
+    }
+
+    // Outside ReadYourWritesFilter, whose session writes are then persisted too
+    @Bean
+    public FilterRegistrationBean<SessionStoreFilter> sessionStoreFilter(SessionStore store,
+                                                                         SessionStoreProperties properties,
+                                                                         MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SessionStoreFilter> registration = new FilterRegistrationBean<>(
+                new SessionStoreFilter(store, properties.getTimeout(), properties.getCookieName(), meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+        return registration;
+    }
+}
@@ -0,0 +1,34 @@
+package com.demo.smartShop.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Server-side sessions shared through a store, used when smartshop.session.mode is "store".
+ */
+@Data
+@ConfigurationProperties("smartshop.session.store")
+public class SessionStoreProperties {
+
+    public enum Type {
+        // This instance only
+        MEMORY,
+        // Shared by every instance through the sessions table
+        JDBC
+    }
+
+    private Type type = Type.MEMORY;
+
+    // Inactivity after which a session expires
+    private Duration timeout = Duration.ofMinutes(30);
+
+    private String cookieName = "SMARTSHOP_SESSION";
+
+    private int shards = 16;
+
+    // Expired sessions deleted per statement, and statements per sweep
+    private int sweepBatchSize = 500;
+    private int sweepMaxBatches = 100;
+}
@@ -0,0 +1,44 @@
+package com.demo.smartShop.config;
+
+import com.demo.smartShop.security.SessionTokenCodec;
+import com.demo.smartShop.security.SessionTokenFilter;
+import com.demo.smartShop.service.SessionService;
+import com.demo.smartShop.service.impl.TokenSessionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Clock;
+
+/**
+ * Stateless sessions: with smartshop.session.mode=token, the user id, role and client id
+ * travel in an HMAC-signed token instead of a servlet session, so any instance can
+ * serve any request without sticky sessions or a shared session store.
+ */
+@Configuration
+@EnableConfigurationProperties(SessionTokenProperties.class)
+@ConditionalOnProperty(name = "smartshop.session.mode", havingValue = "token")
+public class SessionTokenConfig {
+
+    @Bean
+    public SessionTokenCodec sessionTokenCodec(SessionTokenProperties properties) {
+        return new SessionTokenCodec(properties, Clock.systemUTC());
+    }
+
+    @Bean
+    public SessionService sessionService(SessionTokenCodec codec) {
+        return new TokenSessionService(codec);
+    }
+
+    // Before ReadYourWritesFilter, which reads the session
+    @Bean
+    public FilterRegistrationBean<SessionTokenFilter> sessionTokenFilter(SessionTokenCodec codec) {
+        FilterRegistrationBean<SessionTokenFilter> registration =
+                new FilterRegistrationBean<>(new SessionTokenFilter(codec));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+        return registration;
+    }
+}
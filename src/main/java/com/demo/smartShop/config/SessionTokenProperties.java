@@ -0,0 +1,28 @@
+package com.demo.smartShop.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Signed session tokens, used when smartshop.session.mode is "token".
+ */
+@Data
+@ConfigurationProperties("smartshop.session.token")
+public class SessionTokenProperties {
+
+    private Duration ttl = Duration.ofHours(8);
+
+    // The first key signs new tokens; the others are still accepted, for rotation
+    private List<Key> keys = new ArrayList<>();
+
+    @Data
+    public static class Key {
+        private String id;
+        // At least 32 bytes
+        private String secret;
+    }
+}
@@ -1,6 +1,7 @@
 package com.demo.smartShop.controller;
 
 import com.demo.smartShop.dto.response.UserDTO;
+import com.demo.smartShop.security.LoginThrottle;
 import com.demo.smartShop.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,13 +16,17 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/login")
     public ResponseEntity<UserDTO> login(@RequestBody Map<String, String> credentials, HttpServletRequest request) {
         String username = credentials.get("username");
         String password = credentials.get("password");
 
+        // Refused before any lookup or BCrypt work; behind a proxy, set server.forward-headers-strategy
+        loginThrottle.acquire(username, request.getRemoteAddr());
         UserDTO userDTO = authService.login(username, password, request.getSession());
+        loginThrottle.onSuccess(username);
         return ResponseEntity.ok(userDTO);
     }
 
@@ -33,7 +38,7 @@ public class AuthController {
 
     @GetMapping("/me")
     public ResponseEntity<UserDTO> getCurrentUser(HttpServletRequest request) {
-        UserDTO userDTO = authService.getCurrentUser(request.getSession());
+        UserDTO userDTO = authService.getCurrentUser(request.getSession(false));
         return ResponseEntity.ok(userDTO);
     }
 }
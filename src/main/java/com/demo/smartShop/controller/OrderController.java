@@ -1,21 +1,46 @@
 package com.demo.smartShop.controller;
 
+import com.demo.smartShop.dto.request.CreateOrderRequest;
+import com.demo.smartShop.dto.response.CursorPageDTO;
+import com.demo.smartShop.dto.response.OrderBatchResultDTO;
 import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderPricingDTO;
+import com.demo.smartShop.dto.response.PaymentTypeReportDTO;
 import com.demo.smartShop.entity.enums.PaymentType;
-import com.demo.smartShop.entity.enums.UserRole;
-import com.demo.smartShop.exception.ForbiddenException;
-import com.demo.smartShop.exception.UnauthorizedException;
+import com.demo.smartShop.exception.ValidationException;
+import com.demo.smartShop.repository.projection.OrderVersionRow;
+import com.demo.smartShop.security.AdminOnly;
+import com.demo.smartShop.security.ClientOwned;
+import com.demo.smartShop.security.CurrentUser;
+import com.demo.smartShop.security.OrderOwned;
+import com.demo.smartShop.security.Ownership;
+import com.demo.smartShop.service.IdempotencyService;
+import com.demo.smartShop.service.OrderExportService;
 import com.demo.smartShop.service.OrderService;
-import com.demo.smartShop.service.SessionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -24,95 +49,207 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
-    private final SessionService sessionService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyService idempotencyService;
+    private final OrderExportService orderExportService;
+    private final Ownership ownership;
 
+    // Only ADMIN can view all orders
     @GetMapping
-    public ResponseEntity<Page<OrderDTO>> getAllOrders(Pageable pageable, HttpServletRequest request) {
-        // Only ADMIN can view all orders
-        requireAdmin(request);
+    @AdminOnly
+    public ResponseEntity<Page<OrderDTO>> getAllOrders(Pageable pageable) {
         return ResponseEntity.ok(orderService.getAllOrders(pageable));
     }
 
     @GetMapping("/my-orders")
-    public ResponseEntity<Page<OrderDTO>> getMyOrders(Pageable pageable, HttpServletRequest request) {
-        UserRole userRole = getCurrentUserRole(request);
-
-        if (userRole == UserRole.ADMIN) {
+    public ResponseEntity<Page<OrderDTO>> getMyOrders(Pageable pageable, CurrentUser currentUser) {
+        if (currentUser.isAdmin()) {
             return ResponseEntity.ok(orderService.getAllOrders(pageable));
         }
 
-        Long clientId = getCurrentClientId(request);
-        return ResponseEntity.ok(orderService.getOrdersByClientId(clientId, pageable));
+        return ResponseEntity.ok(orderService.getOrdersByClientId(currentUser.clientId(), pageable));
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id, HttpServletRequest request) {
-        UserRole currentUserRole = getCurrentUserRole(request);
-        OrderDTO order = orderService.getOrderById(id);
-
-        // ADMIN can view any order, CLIENT can only view their own orders
-        if (currentUserRole != UserRole.ADMIN) {
-            Long currentClientId = getCurrentClientId(request);
-            if (!order.getClientId().equals(currentClientId)) {
-                throw new ForbiddenException("You can only view your own orders");
-            }
+    /**
+     * Keyset-paginated variant of GET /api/orders: pass back nextCursor to get the following page.
+     */
+    @GetMapping("/cursor")
+    @AdminOnly
+    public ResponseEntity<CursorPageDTO<OrderDTO>> getAllOrdersByCursor(@RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersAfter(cursor, size));
+    }
+
+    @GetMapping("/my-orders/cursor")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> getMyOrdersByCursor(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int size,
+                                                                      CurrentUser currentUser) {
+        if (currentUser.isAdmin()) {
+            return ResponseEntity.ok(orderService.getOrdersAfter(cursor, size));
         }
 
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok(orderService.getOrdersByClientIdAfter(currentUser.clientId(), cursor, size));
+    }
+
+    // ADMIN can view any order, CLIENT can only view their own orders
+    @GetMapping("/{id}")
+    @OrderOwned
+    public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id, HttpServletRequest request,
+            WebRequest webRequest) {
+        // Already read by the ownership check
+        OrderVersionRow version = ownership.orderVersion(request, id);
+
+        // 304 from the version lookup alone, without loading the order
+        if (webRequest.checkNotModified(version.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok(orderService.getOrderById(id));
     }
 
+    // Only ADMIN can create orders
     @PostMapping
-    public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO, HttpServletRequest request) {
-        // Only ADMIN can create orders
-        requireAdmin(request);
-        return ResponseEntity.ok(orderService.createOrder(orderDTO));
+    @AdminOnly
+    public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO,
+                                                @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                CurrentUser currentUser) {
+        // A retried request with the same key gets the original order back
+        return ResponseEntity.ok(idempotencyService.execute("orders:" + currentUser.userId(), idempotencyKey,
+                orderDTO, OrderDTO.class, () -> orderService.createOrder(orderDTO)));
     }
 
+    /**
+     * Bulk ingestion: accepts a JSON array or newline-delimited JSON of orders,
+     * read incrementally from the request body, and reports one result per order.
+     *
+     * Orders are committed while the body is still being read, so a malformed order
+     * is reported as FAILED in the results instead of failing the whole request.
+     */
+    @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson" })
+    @AdminOnly
+    public ResponseEntity<List<OrderBatchResultDTO>> createOrders(HttpServletRequest request) throws IOException {
+        MappingIterator<OrderDTO> orders;
+        try {
+            orders = objectMapper.readerFor(OrderDTO.class).readValues(request.getInputStream());
+        } catch (JsonProcessingException e) {
+            // Nothing read, nothing committed
+            throw new ValidationException("Malformed order batch: " + e.getMessage());
+        }
+        try (orders) {
+            return ResponseEntity.ok(orderService.createOrders(new OrderBatchReader(orders)));
+        }
+    }
+
+    /**
+     * Full order history with items and payments, streamed as NDJSON (default) or CSV.
+     * since/until (ISO date-time) bound the order date for incremental pulls.
+     */
+    @GetMapping("/export")
+    @AdminOnly
+    public void exportOrders(@RequestParam(defaultValue = "ndjson") String format,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+                             HttpServletResponse response) throws IOException {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unsupported export format: " + format);
+        }
+        if (since != null && until != null && !since.isBefore(until)) {
+            throw new ValidationException("'since' must be before 'until'");
+        }
+
+        boolean csv = exportFormat == OrderExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"");
+        orderExportService.exportOrders(since, until, exportFormat, response.getOutputStream());
+    }
+
+    /**
+     * Price a cart without creating the order (no writes).
+     */
+    @PostMapping("/quote")
+    @ClientOwned("clientId")
+    public ResponseEntity<OrderPricingDTO> quoteOrder(@Valid @RequestBody CreateOrderRequest quoteRequest) {
+        // ADMIN can quote for any client, CLIENT only for themselves
+        return ResponseEntity.ok(orderService.quoteOrder(quoteRequest));
+    }
+
+    // Only ADMIN can confirm orders
     @PostMapping("/{id}/confirm")
-    public ResponseEntity<OrderDTO> confirmOrder(@PathVariable Long id, HttpServletRequest request) {
-        // Only ADMIN can confirm orders
-        requireAdmin(request);
+    @AdminOnly
+    public ResponseEntity<OrderDTO> confirmOrder(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.confirmOrder(id));
     }
 
+    // ADMIN can cancel any order, CLIENT can only cancel their own orders
     @PostMapping("/{id}/cancel")
-    public ResponseEntity<OrderDTO> cancelOrder(@PathVariable Long id, HttpServletRequest request) {
-        UserRole currentUserRole = getCurrentUserRole(request);
-        OrderDTO order = orderService.getOrderById(id);
-
-        // ADMIN can cancel any order, CLIENT can only cancel their own orders
-        if (currentUserRole != UserRole.ADMIN) {
-            Long currentClientId = getCurrentClientId(request);
-            if (!order.getClientId().equals(currentClientId)) {
-                throw new ForbiddenException("You can only cancel your own orders");
-            }
-        }
-
+    @OrderOwned
+    public ResponseEntity<OrderDTO> cancelOrder(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.cancelOrder(id));
     }
 
+    // Only ADMIN can view this report
     @GetMapping("/grouped-by-payment-type")
-    public ResponseEntity<Map<PaymentType, List<OrderDTO>>> getOrdersGroupedByPaymentType(HttpServletRequest request) {
-        // Only ADMIN can view this report
-        requireAdmin(request);
-        return ResponseEntity.ok(orderService.getOrdersGroupedByPaymentType());
+    @AdminOnly
+    public ResponseEntity<Map<PaymentType, PaymentTypeReportDTO>> getOrdersGroupedByPaymentType(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            Pageable pageable) {
+        return ResponseEntity.ok(orderService.getOrdersGroupedByPaymentType(from, to, pageable));
     }
 
-    // Helper methods
-    private Long getCurrentClientId(HttpServletRequest request) {
-        return sessionService.getCurrentClientId(request.getSession())
-                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
-    }
+    /**
+     * Turns the parsing errors of a batch into per-order {@link ValidationException}s.
+     * An order that does not bind (wrong type, unknown enum...) is skipped and reading
+     * goes on; after a JSON syntax error the rest of the body cannot be delimited
+     * reliably, so that error is reported and reading stops.
+     */
+    private static final class OrderBatchReader implements Iterator<OrderDTO> {
+        private final MappingIterator<OrderDTO> orders;
+        private RuntimeException pending;
+        private boolean broken;
+
+        private OrderBatchReader(MappingIterator<OrderDTO> orders) {
+            this.orders = orders;
+        }
 
-    private UserRole getCurrentUserRole(HttpServletRequest request) {
-        return sessionService.getCurrentUserRole(request.getSession())
-                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
-    }
+        @Override
+        public boolean hasNext() {
+            if (broken) {
+                return false;
+            }
+            try {
+                return orders.hasNext();
+            } catch (RuntimeException e) {
+                pending = e;
+                return true;
+            }
+        }
+
+        @Override
+        public OrderDTO next() {
+            if (pending != null) {
+                broken = true;
+                throw unreadable(pending);
+            }
+            try {
+                return orders.next();
+            } catch (RuntimeException e) {
+                // Syntax errors come wrapped in a plain RuntimeException
+                if (!(e instanceof RuntimeJsonMappingException && e.getCause() instanceof JsonMappingException)) {
+                    broken = true;
+                }
+                throw unreadable(e);
+            }
+        }
 
-    private void requireAdmin(HttpServletRequest request) {
-        UserRole role = getCurrentUserRole(request);
-        if (role != UserRole.ADMIN) {
-            throw new UnauthorizedException("Admin access required");
+        private ValidationException unreadable(RuntimeException e) {
+            return new ValidationException(broken
+                    ? "Malformed JSON, the rest of the batch was not read: " + e.getMessage()
+                    : "Malformed order: " + e.getMessage());
         }
     }
 }
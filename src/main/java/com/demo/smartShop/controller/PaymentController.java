@@ -1,18 +1,15 @@
 package com.demo.smartShop.controller;
 
-import com.demo.smartShop.dto.response.OrderDTO;
 import com.demo.smartShop.dto.response.PaymentDTO;
-import com.demo.smartShop.entity.enums.UserRole;
-import com.demo.smartShop.exception.ForbiddenException;
-import com.demo.smartShop.exception.UnauthorizedException;
-import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.security.AdminOnly;
+import com.demo.smartShop.security.CurrentUser;
+import com.demo.smartShop.security.OrderOwned;
+import com.demo.smartShop.service.IdempotencyService;
 import com.demo.smartShop.service.PaymentService;
-import com.demo.smartShop.service.SessionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -22,72 +19,38 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
-    private final OrderService orderService;
-    private final SessionService sessionService;
+    private final IdempotencyService idempotencyService;
 
+    // CLIENT can only add payments to their own orders
     @PostMapping
+    @OrderOwned("orderId")
     public ResponseEntity<PaymentDTO> addPayment(@Valid @RequestBody PaymentDTO paymentDTO,
-            HttpServletRequest request) {
-        UserRole currentUserRole = getCurrentUserRole(request);
-
-        // CLIENT can only add payments to their own orders
-        if (currentUserRole != UserRole.ADMIN) {
-            Long currentClientId = getCurrentClientId(request);
-            OrderDTO order = orderService.getOrderById(paymentDTO.getOrderId());
-            if (!order.getClientId().equals(currentClientId)) {
-                throw new ForbiddenException("You can only add payments to your own orders");
-            }
-        }
-
-        return ResponseEntity.ok(paymentService.addPayment(paymentDTO));
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            CurrentUser currentUser) {
+        // A retried request with the same key gets the original payment back
+        return ResponseEntity.ok(idempotencyService.execute("payments:" + currentUser.userId(), idempotencyKey,
+                paymentDTO, PaymentDTO.class, () -> paymentService.addPayment(paymentDTO)));
     }
 
+    // ADMIN can view any order's payments, CLIENT can only view their own order's
+    // payments
     @GetMapping("/order/{orderId}")
-    public ResponseEntity<List<PaymentDTO>> getPaymentsByOrder(@PathVariable Long orderId, HttpServletRequest request) {
-        UserRole currentUserRole = getCurrentUserRole(request);
-
-        // ADMIN can view any order's payments, CLIENT can only view their own order's
-        // payments
-        if (currentUserRole != UserRole.ADMIN) {
-            Long currentClientId = getCurrentClientId(request);
-            OrderDTO order = orderService.getOrderById(orderId);
-            if (!order.getClientId().equals(currentClientId)) {
-                throw new ForbiddenException("You can only view payments for your own orders");
-            }
-        }
-
+    @OrderOwned("orderId")
+    public ResponseEntity<List<PaymentDTO>> getPaymentsByOrder(@PathVariable Long orderId) {
         return ResponseEntity.ok(paymentService.getPaymentsByOrder(orderId));
     }
 
+    // Only ADMIN can validate payments
     @PostMapping("/{id}/validate")
-    public ResponseEntity<PaymentDTO> validatePayment(@PathVariable Long id, HttpServletRequest request) {
-        // Only ADMIN can validate payments
-        requireAdmin(request);
+    @AdminOnly
+    public ResponseEntity<PaymentDTO> validatePayment(@PathVariable Long id) {
         return ResponseEntity.ok(paymentService.validatePayment(id));
     }
 
+    // Only ADMIN can cancel payments
     @PostMapping("/{id}/cancel")
-    public ResponseEntity<PaymentDTO> cancelPayment(@PathVariable Long id, HttpServletRequest request) {
-        // Only ADMIN can cancel payments
-        requireAdmin(request);
+    @AdminOnly
+    public ResponseEntity<PaymentDTO> cancelPayment(@PathVariable Long id) {
         return ResponseEntity.ok(paymentService.cancelPayment(id));
     }
-
-    // Helper methods
-    private Long getCurrentClientId(HttpServletRequest request) {
-        return sessionService.getCurrentClientId(request.getSession())
-                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
-    }
-
-    private UserRole getCurrentUserRole(HttpServletRequest request) {
-        return sessionService.getCurrentUserRole(request.getSession())
-                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
-    }
-
-    private void requireAdmin(HttpServletRequest request) {
-        UserRole role = getCurrentUserRole(request);
-        if (role != UserRole.ADMIN) {
-            throw new UnauthorizedException("Admin access required");
-        }
-    }
 }
@@ -1,17 +1,15 @@
 package com.demo.smartShop.controller;
 
 import com.demo.smartShop.dto.response.ProductDTO;
-import com.demo.smartShop.entity.enums.UserRole;
-import com.demo.smartShop.exception.UnauthorizedException;
+import com.demo.smartShop.security.AdminOnly;
 import com.demo.smartShop.service.ProductService;
-import com.demo.smartShop.service.SessionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 @RestController
@@ -20,50 +18,52 @@ import javax.validation.Valid;
 public class ProductController {
 
     private final ProductService productService;
-    private final SessionService sessionService;
 
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> getAllProducts(Pageable pageable) {
+    public ResponseEntity<Page<ProductDTO>> getAllProducts(Pageable pageable, WebRequest webRequest) {
         // Public endpoint - anyone can view products
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+        // 304 (and ETag header) when If-None-Match still matches the version the page was read at
+        ProductService.CatalogPage catalogPage = productService.getCatalogPage(pageable);
+        if (webRequest.checkNotModified(catalogPage.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok(catalogPage.page());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProductDTO>> searchProducts(@RequestParam("q") String query, Pageable pageable) {
+        // Public endpoint - results are ranked by relevance, any sort parameter is ignored
+        return ResponseEntity.ok(productService.searchProducts(query, pageable));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id, WebRequest webRequest) {
         // Public endpoint - anyone can view a product
+        if (webRequest.checkNotModified(productService.getProductETag(id))) {
+            return null;
+        }
         return ResponseEntity.ok(productService.getProductById(id));
     }
 
+    // Only ADMIN can create products
     @PostMapping
-    public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody ProductDTO productDTO,
-            HttpServletRequest request) {
-        // Only ADMIN can create products
-        requireAdmin(request);
+    @AdminOnly
+    public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody ProductDTO productDTO) {
         return ResponseEntity.ok(productService.createProduct(productDTO));
     }
 
+    // Only ADMIN can update products
     @PutMapping("/{id}")
-    public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDTO productDTO,
-            HttpServletRequest request) {
-        // Only ADMIN can update products
-        requireAdmin(request);
+    @AdminOnly
+    public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDTO productDTO) {
         return ResponseEntity.ok(productService.updateProduct(id, productDTO));
     }
 
+    // Only ADMIN can delete products
     @DeleteMapping("/{id}")
-    public ResponseEntity<ProductDTO> deleteProduct(@PathVariable Long id, HttpServletRequest request) {
-        // Only ADMIN can delete products
-        requireAdmin(request);
+    @AdminOnly
+    public ResponseEntity<ProductDTO> deleteProduct(@PathVariable Long id) {
         ProductDTO deletedProduct = productService.deleteProduct(id);
         return ResponseEntity.ok(deletedProduct);
     }
-
-    // Helper method
-    private void requireAdmin(HttpServletRequest request) {
-        UserRole role = sessionService.getCurrentUserRole(request.getSession())
-                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
-        if (role != UserRole.ADMIN) {
-            throw new UnauthorizedException("Admin access required");
-        }
-    }
 }
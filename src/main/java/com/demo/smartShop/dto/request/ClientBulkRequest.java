@@ -0,0 +1,29 @@
+package com.demo.smartShop.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBulkRequest {
+
+    public enum Action {
+        // Clients with orders are archived instead, so that their order history remains
+        DELETE,
+        ARCHIVE
+    }
+
+    @NotNull(message = "Action is required")
+    private Action action;
+
+    @NotEmpty(message = "At least one client ID is required")
+    private List<@NotNull Long> clientIds;
+}
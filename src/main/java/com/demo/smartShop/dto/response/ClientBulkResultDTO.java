@@ -0,0 +1,21 @@
+package com.demo.smartShop.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBulkResultDTO {
+
+    // Distinct client ids submitted
+    private int requested;
+    private int deleted;
+    private int archived;
+    // Unknown or already archived clients
+    private int skipped;
+    private int usersDeleted;
+}
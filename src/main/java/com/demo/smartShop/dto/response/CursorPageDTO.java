@@ -0,0 +1,20 @@
+package com.demo.smartShop.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    // Opaque token to pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+}
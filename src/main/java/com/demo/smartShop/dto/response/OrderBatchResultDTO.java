@@ -0,0 +1,36 @@
+package com.demo.smartShop.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResultDTO {
+
+    public enum Outcome {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    // Position of the order in the submitted batch
+    private int index;
+    private Outcome outcome;
+    private Long orderId;
+    private BigDecimal totalAmount;
+    private String error;
+
+    public static OrderBatchResultDTO failed(int index, String error) {
+        return OrderBatchResultDTO.builder()
+                .index(index)
+                .outcome(Outcome.FAILED)
+                .error(error)
+                .build();
+    }
+}
@@ -27,4 +27,12 @@ public class OrderDTO {
     private String promoCode;
     private OrderStatus status;
     private BigDecimal remainingAmount;
+
+    // Header-only constructor used by JPQL projections; items are attached afterwards
+    public OrderDTO(Long id, Long clientId, String clientName, LocalDateTime date, BigDecimal subTotal,
+                    BigDecimal discountAmount, BigDecimal taxAmount, BigDecimal totalAmount, String promoCode,
+                    OrderStatus status, BigDecimal remainingAmount) {
+        this(id, clientId, clientName, null, date, subTotal, discountAmount, taxAmount, totalAmount, promoCode,
+                status, remainingAmount);
+    }
 }
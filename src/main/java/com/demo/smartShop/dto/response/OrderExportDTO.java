@@ -0,0 +1,19 @@
+package com.demo.smartShop.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportDTO {
+    @JsonUnwrapped
+    private OrderDTO order;
+    private List<PaymentDTO> payments;
+}
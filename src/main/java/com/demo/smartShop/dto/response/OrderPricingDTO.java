@@ -13,7 +13,12 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class OrderPricingDTO {
     private BigDecimal subTotal;
+    private BigDecimal loyaltyDiscountAmount;
+    private BigDecimal promoDiscountAmount;
+    // loyalty + promo, rounded once on the combined rate
     private BigDecimal discountAmount;
     private BigDecimal taxAmount;
     private BigDecimal totalAmount;
+    // Only set by quotes: false if the order would be REJECTED for lack of stock
+    private Boolean stockAvailable;
 }
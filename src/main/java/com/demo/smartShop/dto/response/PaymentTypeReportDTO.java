@@ -0,0 +1,23 @@
+package com.demo.smartShop.dto.response;
+
+import com.demo.smartShop.entity.enums.PaymentType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentTypeReportDTO {
+    private PaymentType type;
+    private long paymentCount;
+    private BigDecimal totalAmount;
+    private long orderCount;
+    // Distinct orders paid (at least partly) with this type, one page of them
+    private Page<OrderDTO> orders;
+}
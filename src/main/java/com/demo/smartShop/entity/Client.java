@@ -1,17 +1,24 @@
 package com.demo.smartShop.entity;
 
 import com.demo.smartShop.entity.enums.CustomerTier;
+import com.demo.smartShop.entity.id.PooledSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "clients")
+@Table(name = "clients", indexes = {
+        // Top clients: ORDER BY total_spent DESC, id ASC LIMIT n reads the index in order
+        @Index(name = "idx_clients_total_spent_id", columnList = "total_spent DESC, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,9 +26,15 @@ import java.time.LocalDateTime;
 public class Client {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_seq")
+    @GenericGenerator(name = "clients_seq", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "clients_seq"))
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(nullable = false)
     private String nom;
 
@@ -46,4 +59,9 @@ public class Client {
 
     @Column(name = "last_order_date")
     private LocalDateTime lastOrderDate;
+
+    // Archived clients keep their order history, but lose their login and leave the listings
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private boolean archived = false;
 }
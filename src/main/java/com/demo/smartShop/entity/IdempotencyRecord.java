@@ -0,0 +1,46 @@
+package com.demo.smartShop.entity;
+
+import com.demo.smartShop.entity.enums.IdempotencyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a request sent with an Idempotency-Key, replayed on retries until {@code expiresAt}.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_expires", columnList = "expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    // Scope (endpoint and caller) followed by the client supplied key
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    // SHA-256 of the request body, to detect a key reused for another request
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+
+    @Column(name = "response_body", columnDefinition = "text")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
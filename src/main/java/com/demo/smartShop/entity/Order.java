@@ -1,10 +1,14 @@
 package com.demo.smartShop.entity;
 
 import com.demo.smartShop.entity.enums.OrderStatus;
+import com.demo.smartShop.entity.id.PooledSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -13,7 +17,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_client_date_id", columnList = "client_id, date, id"),
+        @Index(name = "idx_orders_date_id", columnList = "date, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,9 +28,16 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @GenericGenerator(name = "orders_seq", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "orders_seq"))
     private Long id;
 
+    // Optimistic lock; rows created before the column existed start at 0
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "client_id", nullable = false)
     private Client client;
@@ -2,17 +2,24 @@ package com.demo.smartShop.entity;
 
 import com.demo.smartShop.entity.enums.PaymentStatus;
 import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.entity.id.PooledSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_order_id", columnList = "order_id"),
+        @Index(name = "idx_payments_type_date_order", columnList = "type, payment_date, order_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,7 +27,9 @@ import java.time.LocalDateTime;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @GenericGenerator(name = "payments_seq", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "payments_seq"))
     private Long id;
 
     @ManyToOne
@@ -1,9 +1,13 @@
 package com.demo.smartShop.entity;
 
+import com.demo.smartShop.entity.id.PooledSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.Pattern;
@@ -18,9 +22,15 @@ import java.math.BigDecimal;
 public class PromoCode {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "promo_codes_seq")
+    @GenericGenerator(name = "promo_codes_seq", strategy = PooledSequenceGenerator.NAME,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "promo_codes_seq"))
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @Pattern(regexp = "PROMO-[A-Z0-9]{4}")
     @Column(unique = true, nullable = false)
     private String code;
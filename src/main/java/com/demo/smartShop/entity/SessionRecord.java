@@ -0,0 +1,37 @@
+package com.demo.smartShop.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * Server-side session shared by all instances (JDBC session store).
+ */
+@Entity
+@Table(name = "sessions", indexes = {
+        @Index(name = "idx_sessions_expires", columnList = "expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionRecord {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    // Serialized attribute map
+    @Column(nullable = false, length = 16384)
+    private byte[] attributes;
+
+    // Epoch milliseconds
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+}
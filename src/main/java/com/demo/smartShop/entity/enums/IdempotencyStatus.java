@@ -0,0 +1,6 @@
+package com.demo.smartShop.entity.enums;
+
+public enum IdempotencyStatus {
+    PROCESSING,
+    COMPLETED
+}
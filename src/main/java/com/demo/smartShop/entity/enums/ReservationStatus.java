@@ -0,0 +1,7 @@
+package com.demo.smartShop.entity.enums;
+
+public enum ReservationStatus {
+    ACTIVE,
+    RELEASED,
+    CONSUMED
+}
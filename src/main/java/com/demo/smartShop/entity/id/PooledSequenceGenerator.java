@@ -0,0 +1,50 @@
+package com.demo.smartShop.entity.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Sequence generator using the pooled optimizer, whose allocation size is read
+ * from the Hibernate settings instead of being hard-coded on each entity:
+ *
+ * <pre>
+ * spring.jpa.properties.smartshop.id.allocation-size.default: 50
+ * spring.jpa.properties.smartshop.id.allocation-size.order_items_seq: 200
+ * </pre>
+ *
+ * Unlike IDENTITY columns, ids are known before the INSERT, which lets Hibernate
+ * group inserts into JDBC batches.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String NAME = "com.demo.smartShop.entity.id.PooledSequenceGenerator";
+
+    static final String ALLOCATION_SIZE_PREFIX = "smartshop.id.allocation-size.";
+    static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        // Raw Map in the Hibernate API: read through a wildcard rather than an unchecked cast
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        String sequenceName = params.getProperty(SEQUENCE_PARAM);
+
+        Object allocationSize = settings.get(ALLOCATION_SIZE_PREFIX + sequenceName);
+        if (allocationSize == null) {
+            allocationSize = settings.get(ALLOCATION_SIZE_PREFIX + "default");
+        }
+        if (allocationSize == null) {
+            allocationSize = DEFAULT_ALLOCATION_SIZE;
+        }
+
+        params.setProperty(INCREMENT_PARAM, allocationSize.toString());
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.demo.smartShop.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published inside the transaction that changes products (catalog edits or stock moves).
+ * Listeners act on it once the transaction has committed.
+ *
+ * @param productIds products whose row changed
+ * @param change     what changed, so listeners can ignore what does not concern them
+ */
+public record ProductsChangedEvent(Set<Long> productIds, Change change) {
+
+    public enum Change {
+        // New products: every listing may be affected
+        CREATED,
+        // Name, price, description or deletion flag
+        DETAILS,
+        STOCK
+    }
+
+    public static ProductsChangedEvent created(Long productId) {
+        return new ProductsChangedEvent(Set.of(productId), Change.CREATED);
+    }
+
+    public static ProductsChangedEvent updated(Collection<Long> productIds) {
+        return new ProductsChangedEvent(Set.copyOf(productIds), Change.DETAILS);
+    }
+
+    public static ProductsChangedEvent stockChanged(Collection<Long> productIds) {
+        return new ProductsChangedEvent(Set.copyOf(productIds), Change.STOCK);
+    }
+}
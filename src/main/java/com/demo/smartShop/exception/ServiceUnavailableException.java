@@ -0,0 +1,16 @@
+package com.demo.smartShop.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    // Seconds after which the client may try again (Retry-After header)
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
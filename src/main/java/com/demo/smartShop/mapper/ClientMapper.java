@@ -3,10 +3,13 @@ package com.demo.smartShop.mapper;
 import com.demo.smartShop.dto.response.ClientDTO;
 import com.demo.smartShop.entity.Client;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface ClientMapper {
     ClientDTO toDTO(Client client);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "archived", ignore = true)
     Client toEntity(ClientDTO clientDTO);
 }
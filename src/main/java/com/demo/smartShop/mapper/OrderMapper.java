@@ -15,6 +15,7 @@ public interface OrderMapper {
     OrderDTO toDTO(Order order);
 
     @Mapping(source = "clientId", target = "client.id")
+    @Mapping(target = "version", ignore = true)
     Order toEntity(OrderDTO orderDTO);
 
     @Mapping(source = "product.id", target = "productId")
@@ -3,9 +3,11 @@ package com.demo.smartShop.mapper;
 import com.demo.smartShop.dto.response.ProductDTO;
 import com.demo.smartShop.entity.Product;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface ProductMapper {
     ProductDTO toDTO(Product product);
+    @Mapping(target = "version", ignore = true)
     Product toEntity(ProductDTO productDTO);
 }
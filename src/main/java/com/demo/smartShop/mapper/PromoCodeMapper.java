@@ -11,6 +11,7 @@ public interface PromoCodeMapper {
     @org.mapstruct.Mapping(target = "id", ignore = true)
     @org.mapstruct.Mapping(target = "active", ignore = true)
     @org.mapstruct.Mapping(target = "currentUsage", ignore = true)
+    @org.mapstruct.Mapping(target = "version", ignore = true)
     PromoCode toEntity(CreatePromoCodeRequest request);
 
     PromoCodeDTO toResponse(PromoCode promoCode);
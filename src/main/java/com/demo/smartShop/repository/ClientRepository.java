@@ -1,12 +1,57 @@
 package com.demo.smartShop.repository;
 
+import com.demo.smartShop.dto.response.ClientDTO;
 import com.demo.smartShop.entity.Client;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
     Optional<Client> findByEmail(String email);
+
+    String CLIENT_DTO = "SELECT new com.demo.smartShop.dto.response.ClientDTO(c.id, c.nom, c.email, c.tier, "
+            + "c.totalOrders, c.totalSpent, c.firstOrderDate, c.lastOrderDate) FROM Client c WHERE c.archived = false";
+
+    @Query(value = CLIENT_DTO, countQuery = "SELECT COUNT(c) FROM Client c WHERE c.archived = false")
+    Page<ClientDTO> findAllProjected(Pageable pageable);
+
+    @Query(CLIENT_DTO + " ORDER BY c.totalSpent DESC, c.id ASC")
+    List<ClientDTO> findTopProjected(Pageable limit);
+
+    // Bulk lifecycle statements are native: HQL bulk DML mis-resolves correlated subqueries
+
+    /**
+     * Archive the given clients that have an order history.
+     *
+     * @return the number of clients archived
+     */
+    @Modifying
+    @Query(value = "UPDATE clients c SET archived = true, version = version + 1 "
+            + "WHERE c.id IN (:ids) AND c.archived = false "
+            + "AND EXISTS (SELECT 1 FROM orders o WHERE o.client_id = c.id)", nativeQuery = true)
+    int archiveWithOrdersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE clients c SET archived = true, version = version + 1 "
+            + "WHERE c.id IN (:ids) AND c.archived = false", nativeQuery = true)
+    int archiveByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete the given clients that never ordered; the others are left untouched.
+     *
+     * @return the number of clients deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM clients c WHERE c.id IN (:ids) "
+            + "AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.client_id = c.id)", nativeQuery = true)
+    int deleteWithoutOrdersByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,43 @@
+package com.demo.smartShop.repository;
+
+import com.demo.smartShop.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.demo.smartShop.entity.enums.IdempotencyStatus.COMPLETED, "
+            + "r.responseBody = :responseBody "
+            + "WHERE r.key = :key AND r.createdAt = :claimedAt "
+            + "AND r.status = com.demo.smartShop.entity.enums.IdempotencyStatus.PROCESSING")
+    int complete(@Param("key") String key, @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("responseBody") String responseBody);
+
+    /**
+     * Take over a claim left PROCESSING by a request that died before completing.
+     * Only one caller can win: the update matches the exact claim time it read.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.createdAt = :now "
+            + "WHERE r.key = :key AND r.createdAt = :claimedAt "
+            + "AND r.status = com.demo.smartShop.entity.enums.IdempotencyStatus.PROCESSING")
+    int takeOver(@Param("key") String key, @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r "
+            + "WHERE r.key = :key AND r.createdAt = :claimedAt "
+            + "AND r.status = com.demo.smartShop.entity.enums.IdempotencyStatus.PROCESSING")
+    int releaseClaim(@Param("key") String key, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
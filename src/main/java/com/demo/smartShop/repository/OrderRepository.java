@@ -1,12 +1,119 @@
 package com.demo.smartShop.repository;
 
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
 import com.demo.smartShop.entity.Order;
+import com.demo.smartShop.entity.enums.OrderStatus;
+import com.demo.smartShop.repository.projection.OrderItemRow;
+import com.demo.smartShop.repository.projection.OrderVersionRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    Page<Order> findByClientId(Long clientId, Pageable pageable);
+    @EntityGraph(attributePaths = {"client", "items", "items.product"})
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findDetailedById(@Param("id") Long id);
+
+    // Product versions only grow, so their sum changes whenever one of the order's products does
+    @Query("SELECT new com.demo.smartShop.repository.projection.OrderVersionRow(c.id, o.version, c.version, "
+            + "COALESCE(SUM(p.version), 0)) "
+            + "FROM Order o JOIN o.client c LEFT JOIN o.items i LEFT JOIN i.product p WHERE o.id = :id "
+            + "GROUP BY c.id, o.version, c.version")
+    Optional<OrderVersionRow> findVersionById(@Param("id") Long id);
+
+    // Read-only listings are projected straight into OrderDTO headers (no managed
+    // entities, no dirty checking); their lines come from findItemRowsByOrderIdIn
+    // in one extra query. Fetch-joining items would paginate in memory instead.
+
+    String ORDER_HEADER = "SELECT new com.demo.smartShop.dto.response.OrderDTO(o.id, c.id, c.nom, o.date, "
+            + "o.subTotal, o.discountAmount, o.taxAmount, o.totalAmount, o.promoCode, o.status, o.remainingAmount) "
+            + "FROM Order o JOIN o.client c";
+
+    @Query(value = ORDER_HEADER, countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderDTO> findHeaderPage(Pageable pageable);
+
+    @Query(value = ORDER_HEADER + " WHERE c.id = :clientId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.client.id = :clientId")
+    Page<OrderDTO> findHeaderPageByClientId(@Param("clientId") Long clientId, Pageable pageable);
+
+    @Query(ORDER_HEADER + " WHERE c.id = :clientId ORDER BY o.date DESC, o.id DESC")
+    List<OrderDTO> findHeadersByClientId(@Param("clientId") Long clientId);
+
+    /**
+     * Fill the items of projected order headers, with one query for the whole list.
+     */
+    default List<OrderDTO> attachItems(List<OrderDTO> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, List<OrderItemDTO>> items = new HashMap<>();
+        for (OrderDTO order : orders) {
+            // Copies of the same order share one list
+            order.setItems(items.computeIfAbsent(order.getId(), id -> new ArrayList<>()));
+        }
+        for (OrderItemRow row : findItemRowsByOrderIdIn(items.keySet())) {
+            items.get(row.orderId()).add(row.toDTO());
+        }
+        return orders;
+    }
+
+    @Query("SELECT new com.demo.smartShop.repository.projection.OrderItemRow(i.order.id, i.id, p.id, p.nom, "
+            + "i.quantity, i.unitPrice, i.totalLine) FROM OrderItem i JOIN i.product p "
+            + "WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemRow> findItemRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // Keyset pagination, newest first. The limit comes from an unsorted Pageable and
+    // List results skip the count query. The redundant "date <=" bound gives the
+    // planner an index range on (date, id) / (client_id, date, id).
+
+    @Query(ORDER_HEADER + " ORDER BY o.date DESC, o.id DESC")
+    List<OrderDTO> findFirstKeysetPage(Pageable limit);
+
+    @Query(ORDER_HEADER + " WHERE o.date <= :date AND (o.date < :date OR o.id < :id) "
+            + "ORDER BY o.date DESC, o.id DESC")
+    List<OrderDTO> findKeysetPageAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Pageable limit);
+
+    @Query(ORDER_HEADER + " WHERE c.id = :clientId ORDER BY o.date DESC, o.id DESC")
+    List<OrderDTO> findFirstKeysetPageByClientId(@Param("clientId") Long clientId, Pageable limit);
+
+    @Query(ORDER_HEADER + " WHERE c.id = :clientId "
+            + "AND o.date <= :date AND (o.date < :date OR o.id < :id) "
+            + "ORDER BY o.date DESC, o.id DESC")
+    List<OrderDTO> findKeysetPageByClientIdAfter(@Param("clientId") Long clientId, @Param("date") LocalDateTime date,
+                                              @Param("id") Long id, Pageable limit);
+
+    /**
+     * Quantities reserved by an order, summed per product, as [productId, quantity] pairs.
+     * Does not hydrate the products so they can be loaded fresh under a row lock.
+     */
+    @Query("SELECT i.product.id, SUM(i.quantity) FROM OrderItem i WHERE i.order.id = :orderId GROUP BY i.product.id")
+    List<Object[]> sumQuantitiesByProduct(@Param("orderId") Long orderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Lock the orders that are still in the given status, in ascending id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.status = :status ORDER BY o.id ASC")
+    List<Order> findAllByIdAndStatusForUpdate(@Param("ids") Collection<Long> ids,
+                                              @Param("status") OrderStatus status);
 }
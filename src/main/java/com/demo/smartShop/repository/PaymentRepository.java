@@ -1,12 +1,53 @@
 package com.demo.smartShop.repository;
 
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.PaymentDTO;
 import com.demo.smartShop.entity.Payment;
+import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.repository.projection.PaymentTypeTotalsRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByOrderId(Long orderId);
+
+    @Query("SELECT new com.demo.smartShop.dto.response.PaymentDTO(p.id, p.order.id, p.paymentNumber, p.amount, "
+            + "p.type, p.status, p.paymentDate, p.cashingDate, p.reference, p.bank, p.dueDate) "
+            + "FROM Payment p WHERE p.order.id = :orderId ORDER BY p.paymentNumber")
+    List<PaymentDTO> findDTOsByOrderId(@Param("orderId") Long orderId);
+
+    @Query("SELECT new com.demo.smartShop.dto.response.PaymentDTO(p.id, p.order.id, p.paymentNumber, p.amount, "
+            + "p.type, p.status, p.paymentDate, p.cashingDate, p.reference, p.bank, p.dueDate) "
+            + "FROM Payment p WHERE p.order.id IN :orderIds ORDER BY p.order.id, p.paymentNumber")
+    List<PaymentDTO> findDTOsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT DISTINCT p.order.id FROM Payment p WHERE p.order.id IN :orderIds "
+            + "AND p.status <> com.demo.smartShop.entity.enums.PaymentStatus.ANNULEE")
+    List<Long> findOrderIdsWithActivePayments(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Payment count, amount and distinct orders per type, for payments dated in [from, to).
+     */
+    @Query("SELECT new com.demo.smartShop.repository.projection.PaymentTypeTotalsRow(p.type, COUNT(p), "
+            + "SUM(p.amount), COUNT(DISTINCT p.order.id)) FROM Payment p "
+            + "WHERE p.paymentDate >= :from AND p.paymentDate < :to GROUP BY p.type")
+    List<PaymentTypeTotalsRow> sumByType(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * One page of the distinct orders having a payment of the given type dated in [from, to).
+     * The page's sort must end with a unique key, or pages may overlap or skip orders.
+     * The total comes from {@link #sumByType}, so no count query is run.
+     */
+    @Query(OrderRepository.ORDER_HEADER + " WHERE EXISTS (SELECT p.id FROM Payment p WHERE p.order = o "
+            + "AND p.type = :type AND p.paymentDate >= :from AND p.paymentDate < :to)")
+    List<OrderDTO> findOrderHeadersByPaymentType(@Param("type") PaymentType type, @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to, Pageable pageable);
 }
@@ -1,11 +1,21 @@
 package com.demo.smartShop.repository;
 
+import com.demo.smartShop.dto.response.ProductDTO;
 import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.repository.projection.CatalogVersionRow;
+import com.demo.smartShop.repository.projection.ProductTextRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +27,64 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     @Query(value = "SELECT * FROM products WHERE id = :id", nativeQuery = true)
     Optional<Product> findByIdIncludingDeleted(@Param("id") Long id);
+
+    @Query(value = "SELECT new com.demo.smartShop.dto.response.ProductDTO(p.id, p.nom, p.price, p.stock, p.deleted) "
+            + "FROM Product p", countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductDTO> findAllProjected(Pageable pageable);
+
+    @Query("SELECT new com.demo.smartShop.dto.response.ProductDTO(p.id, p.nom, p.price, p.stock, p.deleted) "
+            + "FROM Product p WHERE p.id IN :ids AND p.deleted = false")
+    List<ProductDTO> findProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset chunk of the searchable text of all products, in id order.
+     */
+    @Query("SELECT new com.demo.smartShop.repository.projection.ProductTextRow(p.id, p.version, p.nom, p.description, p.deleted) "
+            + "FROM Product p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<ProductTextRow> findTextRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.demo.smartShop.repository.projection.ProductTextRow(p.id, p.version, p.nom, p.description, p.deleted) "
+            + "FROM Product p WHERE p.id IN :ids")
+    List<ProductTextRow> findTextRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Inputs of the catalog ETag: any insert, delete or versioned update changes at least one of them.
+     */
+    @Query("SELECT new com.demo.smartShop.repository.projection.CatalogVersionRow("
+            + "COUNT(p), COALESCE(SUM(p.version), 0L), COALESCE(MAX(p.id), 0L)) FROM Product p")
+    CatalogVersionRow findCatalogVersion();
+
+    /**
+     * Load all the given products in a single query and lock their rows
+     * (SELECT ... FOR UPDATE) until the end of the current transaction.
+     * Rows are always locked in ascending id order so that two transactions
+     * reserving overlapping carts cannot deadlock each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id ASC")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Single-statement conditional decrement: the row is only updated when it
+     * still holds at least {@code quantity} units, so concurrent callers can
+     * never drive the stock below zero.
+     *
+     * @return the number of updated rows (1 on success, 0 if the product is
+     *         missing or the stock is insufficient)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.version = p.version + 1 WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Decrement the stock if enough units are available, in one round trip.
+     */
+    default boolean tryDecrementStock(Long id, int quantity) {
+        return decrementStockIfAvailable(id, quantity) == 1;
+    }
 }
@@ -0,0 +1,48 @@
+package com.demo.smartShop.repository;
+
+import com.demo.smartShop.entity.SessionRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SessionRecordRepository extends JpaRepository<SessionRecord, String> {
+
+    @Query("SELECT s FROM SessionRecord s WHERE s.id = :id AND s.expiresAt > :now")
+    SessionRecord findLive(@Param("id") String id, @Param("now") long now);
+
+    @Modifying
+    @Query("UPDATE SessionRecord s SET s.attributes = :attributes, s.expiresAt = :expiresAt WHERE s.id = :id")
+    int updateAttributes(@Param("id") String id, @Param("attributes") byte[] attributes,
+                         @Param("expiresAt") long expiresAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO sessions (id, attributes, created_at, expires_at) "
+            + "VALUES (:id, :attributes, :createdAt, :expiresAt)", nativeQuery = true)
+    void insert(@Param("id") String id, @Param("attributes") byte[] attributes,
+                @Param("createdAt") long createdAt, @Param("expiresAt") long expiresAt);
+
+    @Modifying
+    @Query("UPDATE SessionRecord s SET s.expiresAt = :expiresAt WHERE s.id = :id")
+    int touch(@Param("id") String id, @Param("expiresAt") long expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM SessionRecord s WHERE s.id = :id")
+    int deleteSession(@Param("id") String id);
+
+    @Query("SELECT s.id FROM SessionRecord s WHERE s.expiresAt <= :now")
+    List<String> findExpiredIds(@Param("now") long now, Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM SessionRecord s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT COUNT(s) FROM SessionRecord s WHERE s.expiresAt > :now")
+    long countLive(@Param("now") long now);
+}
@@ -0,0 +1,55 @@
+package com.demo.smartShop.repository;
+
+import com.demo.smartShop.entity.StockReservation;
+import com.demo.smartShop.entity.enums.ReservationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Orders holding ACTIVE reservations past their deadline and without any
+     * non-cancelled payment. Served by the (status, expires_at) index, so the
+     * orders table itself is never scanned.
+     */
+    @Query("SELECT DISTINCT r.order.id FROM StockReservation r "
+            + "WHERE r.status = com.demo.smartShop.entity.enums.ReservationStatus.ACTIVE "
+            + "AND r.expiresAt < :now "
+            + "AND NOT EXISTS (SELECT p.id FROM Payment p WHERE p.order = r.order "
+            + "AND p.status <> com.demo.smartShop.entity.enums.PaymentStatus.ANNULEE)")
+    List<Long> findExpiredOrderIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Units held per product by the ACTIVE reservations of the given orders, as [productId, quantity] pairs.
+     */
+    @Query("SELECT r.product.id, SUM(r.quantity) FROM StockReservation r "
+            + "WHERE r.order.id IN :orderIds "
+            + "AND r.status = com.demo.smartShop.entity.enums.ReservationStatus.ACTIVE "
+            + "GROUP BY r.product.id")
+    List<Object[]> sumActiveQuantitiesByProduct(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Units held per product by all ACTIVE reservations, as [productId, quantity] pairs.
+     */
+    @Query("SELECT r.product.id, SUM(r.quantity) FROM StockReservation r "
+            + "WHERE r.status = com.demo.smartShop.entity.enums.ReservationStatus.ACTIVE "
+            + "GROUP BY r.product.id")
+    List<Object[]> sumActiveQuantitiesByProduct();
+
+    long countByStatus(ReservationStatus status);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.order.id IN :orderIds AND r.status = :from")
+    int updateStatusByOrderIds(@Param("orderIds") Collection<Long> orderIds,
+                               @Param("from") ReservationStatus from,
+                               @Param("to") ReservationStatus to);
+}
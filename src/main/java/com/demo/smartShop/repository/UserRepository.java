@@ -2,11 +2,32 @@ package com.demo.smartShop.repository;
 
 import com.demo.smartShop.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    Optional<User> findByClientId(Long clientId);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.client.id IN :clientIds")
+    int deleteByClientIdIn(@Param("clientIds") Collection<Long> clientIds);
+
+    /**
+     * Replace a password hash, unless the password was changed meanwhile.
+     *
+     * @return 1 if replaced, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id AND u.password = :previous")
+    int replacePassword(@Param("id") Long id, @Param("previous") String previous, @Param("password") String password);
 }
@@ -0,0 +1,11 @@
+package com.demo.smartShop.repository.projection;
+
+/**
+ * Size, summed row versions and highest id of the products table, from which the catalog ETag is built.
+ */
+public record CatalogVersionRow(Long productCount, Long versionSum, Long maxId) {
+
+    public String eTag() {
+        return productCount + "." + versionSum + "." + maxId;
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.smartShop.repository.projection;
+
+import com.demo.smartShop.dto.response.OrderItemDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Order line read by a JPQL constructor projection, keyed by its order so a page
+ * of order headers can be completed with one query.
+ */
+public record OrderItemRow(Long orderId, Long id, Long productId, String productName, int quantity,
+                           BigDecimal unitPrice, BigDecimal totalLine) {
+
+    public OrderItemDTO toDTO() {
+        return new OrderItemDTO(id, productId, productName, quantity, unitPrice, totalLine);
+    }
+}
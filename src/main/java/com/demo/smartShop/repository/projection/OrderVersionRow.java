@@ -0,0 +1,15 @@
+package com.demo.smartShop.repository.projection;
+
+/**
+ * Owner and row versions of an order, enough to authorize a conditional GET and answer 304.
+ * The client and product versions are part of the ETag because the order representation
+ * shows the client name and the product names.
+ *
+ * @param productVersions sum of the versions of the order's products
+ */
+public record OrderVersionRow(Long clientId, Long version, Long clientVersion, Long productVersions) {
+
+    public String eTag() {
+        return version + "." + clientVersion + "." + productVersions;
+    }
+}
@@ -0,0 +1,11 @@
+package com.demo.smartShop.repository.projection;
+
+import com.demo.smartShop.entity.enums.PaymentType;
+
+import java.math.BigDecimal;
+
+/**
+ * Payments of one type aggregated in SQL: how many, their total and the number of distinct orders.
+ */
+public record PaymentTypeTotalsRow(PaymentType type, Long paymentCount, BigDecimal totalAmount, Long orderCount) {
+}
@@ -0,0 +1,7 @@
+package com.demo.smartShop.repository.projection;
+
+/**
+ * Searchable text of a product with its row version, as fed to the search index.
+ */
+public record ProductTextRow(Long id, Long version, String nom, String description, boolean deleted) {
+}
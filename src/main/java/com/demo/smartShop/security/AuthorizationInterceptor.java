@@ -0,0 +1,99 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.exception.ForbiddenException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+/**
+ * Enforces {@link AdminOnly}, {@link Authenticated}, {@link ClientOwned} and {@link OrderOwned}
+ * before the controller method runs. Methods without any of them are public.
+ *
+ * An owned id taken from the request body rather than the path is checked by
+ * {@link OwnedBodyAdvice} as soon as the body is read, still before the method runs.
+ * An owned id found in neither refuses the request; {@link OwnedHandlerValidator}
+ * rejects such handlers at startup already.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthorizationInterceptor implements HandlerInterceptor {
+
+    private final CurrentUserResolver currentUserResolver;
+    private final Ownership ownership;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        boolean adminOnly = annotated(method, AdminOnly.class);
+        ClientOwned clientOwned = method.getMethodAnnotation(ClientOwned.class);
+        OrderOwned orderOwned = method.getMethodAnnotation(OrderOwned.class);
+        if (!adminOnly && clientOwned == null && orderOwned == null && !annotated(method, Authenticated.class)) {
+            return true;
+        }
+
+        CurrentUser user = currentUserResolver.require(request);
+        if (adminOnly && !user.isAdmin()) {
+            throw new ForbiddenException("Admin access required");
+        }
+        Map<String, String> variables = pathVariables(request);
+        if (clientOwned != null && variables.containsKey(clientOwned.value())) {
+            ownership.requireClient(user, toId(variables.get(clientOwned.value())));
+        } else if (clientOwned != null && !readsBody(method)) {
+            throw unresolved(clientOwned.value());
+        }
+        if (orderOwned != null && variables.containsKey(orderOwned.value())) {
+            ownership.requireOrder(request, user, toId(variables.get(orderOwned.value())));
+        } else if (orderOwned != null && !readsBody(method)) {
+            throw unresolved(orderOwned.value());
+        }
+        return true;
+    }
+
+    static boolean readsBody(HandlerMethod method) {
+        for (MethodParameter parameter : method.getMethodParameters()) {
+            if (parameter.hasParameterAnnotation(RequestBody.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A misconfigured owner never lets the request through
+    static ForbiddenException unresolved(String name) {
+        return new ForbiddenException("Cannot check ownership: no '" + name + "' in the request");
+    }
+
+    private static boolean annotated(HandlerMethod method, Class<? extends Annotation> type) {
+        return method.hasMethodAnnotation(type) || AnnotatedElementUtils.hasAnnotation(method.getBeanType(), type);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, String> pathVariables(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables == null ? Map.of() : variables;
+    }
+
+    static Long toId(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return value == null ? null : Long.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.demo.smartShop.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The method acts on one client's data: admins may call it for any client, clients only
+ * for themselves (403 otherwise, 401 without a session).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ClientOwned {
+
+    // Path variable holding the client id, or else property of the request body
+    String value() default "id";
+}
@@ -0,0 +1,28 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.entity.enums.UserRole;
+import com.demo.smartShop.exception.ForbiddenException;
+
+/**
+ * The authenticated caller, as recorded in its session. Declare a parameter of this
+ * type in a controller method to receive it; requests without one are answered 401.
+ *
+ * @param clientId null for users without a client account (admins)
+ */
+public record CurrentUser(Long userId, UserRole role, Long clientId) {
+
+    public boolean isAdmin() {
+        return role == UserRole.ADMIN;
+    }
+
+    /**
+     * Admins may act on any client's resources, clients only on their own.
+     *
+     * @throws ForbiddenException otherwise
+     */
+    public void requireOwner(Long ownerClientId, String message) {
+        if (!isAdmin() && (clientId == null || !clientId.equals(ownerClientId))) {
+            throw new ForbiddenException(message);
+        }
+    }
+}
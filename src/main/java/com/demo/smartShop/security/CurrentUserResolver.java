@@ -0,0 +1,65 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.exception.UnauthorizedException;
+import com.demo.smartShop.service.SessionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.util.Optional;
+
+/**
+ * Reads the caller from its session once per request, without creating a session
+ * for anonymous callers and without touching the database, and injects it into
+ * controller parameters of type {@link CurrentUser}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver implements HandlerMethodArgumentResolver {
+
+    private static final String ATTRIBUTE = CurrentUser.class.getName();
+    private static final String NOT_AUTHENTICATED = "User not authenticated";
+
+    private final SessionService sessionService;
+
+    public Optional<CurrentUser> resolve(HttpServletRequest request) {
+        Object cached = request.getAttribute(ATTRIBUTE);
+        if (cached != null) {
+            return ((Optional<?>) cached).map(CurrentUser.class::cast);
+        }
+        Optional<CurrentUser> user = read(request.getSession(false));
+        request.setAttribute(ATTRIBUTE, user);
+        return user;
+    }
+
+    public CurrentUser require(HttpServletRequest request) {
+        return resolve(request).orElseThrow(() -> new UnauthorizedException(NOT_AUTHENTICATED));
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == CurrentUser.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return require(webRequest.getNativeRequest(HttpServletRequest.class));
+    }
+
+    private Optional<CurrentUser> read(HttpSession session) {
+        if (session == null) {
+            return Optional.empty();
+        }
+        return sessionService.getCurrentUserId(session)
+                .flatMap(userId -> sessionService.getCurrentUserRole(session)
+                        .map(role -> new CurrentUser(userId, role,
+                                sessionService.getCurrentClientId(session).orElse(null))));
+    }
+}
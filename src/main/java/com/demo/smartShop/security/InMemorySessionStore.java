@@ -0,0 +1,73 @@
+package com.demo.smartShop.security;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions held in this JVM, spread over independent shards so that sweeping one
+ * shard never blocks the others. Not shared between instances: use the JDBC store
+ * behind a load balancer without sticky sessions.
+ */
+public class InMemorySessionStore implements SessionStore {
+
+    private final ConcurrentHashMap<String, SessionData>[] shards;
+
+    @SuppressWarnings("unchecked")
+    public InMemorySessionStore(int shardCount) {
+        shards = new ConcurrentHashMap[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @Override
+    public SessionData load(String id, long now) {
+        SessionData session = shard(id).get(id);
+        return session != null && session.expiresAt() > now ? session : null;
+    }
+
+    @Override
+    public void save(SessionData session) {
+        shard(session.id()).put(session.id(), session);
+    }
+
+    @Override
+    public void touch(String id, long expiresAt) {
+        shard(id).computeIfPresent(id, (key, session) ->
+                new SessionData(key, session.attributes(), session.createdAt(), expiresAt));
+    }
+
+    @Override
+    public void delete(String id) {
+        shard(id).remove(id);
+    }
+
+    @Override
+    public int deleteExpired(long now, int limit) {
+        int deleted = 0;
+        for (ConcurrentHashMap<String, SessionData> shard : shards) {
+            Iterator<SessionData> sessions = shard.values().iterator();
+            while (sessions.hasNext() && deleted < limit) {
+                if (sessions.next().expiresAt() <= now) {
+                    sessions.remove();
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public long count(long now) {
+        long count = 0;
+        for (ConcurrentHashMap<String, SessionData> shard : shards) {
+            count += shard.size();
+        }
+        return count;
+    }
+
+    private ConcurrentHashMap<String, SessionData> shard(String id) {
+        int hash = id.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+}
@@ -0,0 +1,96 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.entity.SessionRecord;
+import com.demo.smartShop.repository.SessionRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sessions in the sessions table, so that every instance sees every login. Each
+ * call is one short transaction of its own, never joined to the request's work.
+ */
+@RequiredArgsConstructor
+public class JdbcSessionStore implements SessionStore {
+
+    // Session attributes are ids, names and timestamps: refuse anything else on read
+    private static final ObjectInputFilter ATTRIBUTE_TYPES =
+            ObjectInputFilter.Config.createFilter("java.lang.*;java.util.*;java.time.*;!*");
+
+    private final SessionRecordRepository repository;
+    // REQUIRES_NEW
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public SessionData load(String id, long now) {
+        SessionRecord record = transactionTemplate.execute(status -> repository.findLive(id, now));
+        return record == null ? null
+                : new SessionData(record.getId(), read(record.getAttributes()), record.getCreatedAt(),
+                        record.getExpiresAt());
+    }
+
+    @Override
+    public void save(SessionData session) {
+        byte[] attributes = write(session.attributes());
+        transactionTemplate.executeWithoutResult(status -> {
+            if (repository.updateAttributes(session.id(), attributes, session.expiresAt()) == 0) {
+                repository.insert(session.id(), attributes, session.createdAt(), session.expiresAt());
+            }
+        });
+    }
+
+    @Override
+    public void touch(String id, long expiresAt) {
+        transactionTemplate.executeWithoutResult(status -> repository.touch(id, expiresAt));
+    }
+
+    @Override
+    public void delete(String id) {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteSession(id));
+    }
+
+    @Override
+    public int deleteExpired(long now, int limit) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<String> ids = repository.findExpiredIds(now, PageRequest.of(0, limit));
+            return ids.isEmpty() ? 0 : repository.deleteByIdIn(ids);
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    @Override
+    public long count(long now) {
+        Long count = transactionTemplate.execute(status -> repository.countLive(now));
+        return count == null ? 0 : count;
+    }
+
+    private static byte[] write(Map<String, Object> attributes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new HashMap<>(attributes));
+        } catch (IOException e) {
+            throw new IllegalStateException("Session attributes must be serializable", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> read(byte[] attributes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(attributes))) {
+            in.setObjectInputFilter(ATTRIBUTE_TYPES);
+            return Map.copyOf((Map<String, Object>) in.readObject());
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Unreadable session attributes", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets limiting login attempts per username and per client IP, checked
+ * before any user lookup or password hashing.
+ *
+ * Each attempt takes one token from the IP bucket, then one from the username
+ * bucket; a successful login refills the username bucket. Buckets live in a
+ * size-bounded cache and are dropped once idle, so a flood of distinct usernames
+ * or addresses only evicts the least recently used buckets. Bucket updates are
+ * guarded by a fixed set of striped locks rather than one lock per bucket.
+ *
+ * Metric: smartshop.auth.throttled, tagged with the bucket kind (username or ip).
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginThrottle {
+
+    private static final String TOO_MANY_ATTEMPTS = "Too many login attempts, please retry later";
+    private static final int STRIPES = 64;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${smartshop.auth.throttle.per-username.capacity:5}")
+    private int usernameCapacity;
+
+    // Time for a username bucket to get one attempt back
+    @Value("${smartshop.auth.throttle.per-username.refill-interval:20s}")
+    private Duration usernameRefill;
+
+    @Value("${smartshop.auth.throttle.per-ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${smartshop.auth.throttle.per-ip.refill-interval:3s}")
+    private Duration ipRefill;
+
+    // Buckets kept per kind; beyond that the least recently used are dropped
+    @Value("${smartshop.auth.throttle.max-keys:100000}")
+    private long maxKeys;
+
+    private final Object[] locks = new Object[STRIPES];
+    private Limiter usernames;
+    private Limiter addresses;
+    // Replaced by tests
+    LongSupplier clock = System::nanoTime;
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        usernames = new Limiter("username", usernameCapacity, usernameRefill.toNanos());
+        addresses = new Limiter("ip", ipCapacity, ipRefill.toNanos());
+    }
+
+    /**
+     * Take one attempt for this username and address.
+     *
+     * @throws TooManyRequestsException if either has none left
+     */
+    public void acquire(String username, String clientIp) {
+        addresses.acquire(clientIp == null ? "" : clientIp);
+        usernames.acquire(username == null ? "" : username);
+    }
+
+    public void onSuccess(String username) {
+        if (username != null) {
+            usernames.buckets.invalidate(username);
+        }
+    }
+
+    private Object lockFor(String key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private final class Limiter {
+        private final String kind;
+        private final int capacity;
+        private final long refillNanos;
+        private final Cache<String, Bucket> buckets;
+
+        private Limiter(String kind, int capacity, long refillNanos) {
+            this.kind = kind;
+            this.capacity = capacity;
+            this.refillNanos = refillNanos;
+            // Idle longer than a full refill: the bucket would be full again anyway
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(refillNanos * capacity))
+                    .build();
+        }
+
+        private void acquire(String key) {
+            long now = clock.getAsLong();
+            Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+            long waitNanos;
+            synchronized (lockFor(key)) {
+                bucket.refill(now, capacity, refillNanos);
+                if (bucket.tokens >= 1) {
+                    bucket.tokens--;
+                    return;
+                }
+                waitNanos = (long) ((1 - bucket.tokens) * refillNanos);
+            }
+            meterRegistry.counter("smartshop.auth.throttled", "kind", kind).increment();
+            throw new TooManyRequestsException(TOO_MANY_ATTEMPTS,
+                    Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L));
+        }
+    }
+
+    // Guarded by the stripe lock of its key
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        private void refill(long now, int capacity, long refillNanos) {
+            if (now > updatedAt) {
+                tokens = Math.min(capacity, tokens + (double) (now - updatedAt) / refillNanos);
+                updatedAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.demo.smartShop.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The method acts on one order: admins may call it for any order, clients only for
+ * their own (403 otherwise, 401 without a session, 404 for an unknown order).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OrderOwned {
+
+    // Path variable holding the order id, or else property of the request body
+    String value() default "id";
+}
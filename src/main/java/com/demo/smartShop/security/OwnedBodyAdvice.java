@@ -0,0 +1,68 @@
+package com.demo.smartShop.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * Checks {@link ClientOwned} and {@link OrderOwned} ids that are properties of the request
+ * body (those not found among the path variables by {@link AuthorizationInterceptor}).
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class OwnedBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final CurrentUserResolver currentUserResolver;
+    private final Ownership ownership;
+
+    @Override
+    public boolean supports(MethodParameter parameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return parameter.hasMethodAnnotation(ClientOwned.class) || parameter.hasMethodAnnotation(OrderOwned.class);
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        HttpServletRequest request =
+                ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        Map<String, String> variables = AuthorizationInterceptor.pathVariables(request);
+        ClientOwned clientOwned = parameter.getMethodAnnotation(ClientOwned.class);
+        if (clientOwned != null && !variables.containsKey(clientOwned.value())) {
+            ownership.requireClient(currentUserResolver.require(request), property(body, clientOwned.value()));
+        }
+        OrderOwned orderOwned = parameter.getMethodAnnotation(OrderOwned.class);
+        if (orderOwned != null && !variables.containsKey(orderOwned.value())) {
+            ownership.requireOrder(request, currentUserResolver.require(request), property(body, orderOwned.value()));
+        }
+        return body;
+    }
+
+    // No body, no owner: clients are refused, admins get the usual missing-body error
+    @Override
+    public Object handleEmptyBody(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                  Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return afterBodyRead(body, inputMessage, parameter, targetType, converterType);
+    }
+
+    private static Long property(Object body, String name) {
+        if (body == null) {
+            return null;
+        }
+        BeanWrapperImpl properties = new BeanWrapperImpl(body);
+        if (!properties.isReadableProperty(name)) {
+            throw AuthorizationInterceptor.unresolved(name);
+        }
+        return AuthorizationInterceptor.toId(properties.getPropertyValue(name));
+    }
+}
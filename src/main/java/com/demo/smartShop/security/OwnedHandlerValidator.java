@@ -0,0 +1,79 @@
+package com.demo.smartShop.security;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.beans.PropertyDescriptor;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Fails startup when a {@link ClientOwned} or {@link OrderOwned} handler names an id that
+ * is neither a path variable of every pattern it is mapped to nor a property of its
+ * request body, instead of leaving it to be refused on every call.
+ */
+@Component
+public class OwnedHandlerValidator implements SmartInitializingSingleton {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\*?([^}:]+)");
+
+    private final RequestMappingHandlerMapping handlerMapping;
+
+    public OwnedHandlerValidator(
+            @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        validate(handlerMapping.getHandlerMethods());
+    }
+
+    static void validate(Map<RequestMappingInfo, HandlerMethod> handlers) {
+        handlers.forEach((mapping, method) -> {
+            ClientOwned clientOwned = method.getMethodAnnotation(ClientOwned.class);
+            if (clientOwned != null) {
+                check(mapping, method, "@ClientOwned", clientOwned.value());
+            }
+            OrderOwned orderOwned = method.getMethodAnnotation(OrderOwned.class);
+            if (orderOwned != null) {
+                check(mapping, method, "@OrderOwned", orderOwned.value());
+            }
+        });
+    }
+
+    private static void check(RequestMappingInfo mapping, HandlerMethod method, String annotation, String name) {
+        boolean inPath = !mapping.getPatternValues().isEmpty()
+                && mapping.getPatternValues().stream().allMatch(pattern -> variables(pattern).contains(name));
+        if (!inPath && !inBody(method, name)) {
+            throw new IllegalStateException(annotation + "(\"" + name + "\") on " + method.getShortLogMessage()
+                    + ": neither a path variable of " + mapping.getPatternValues()
+                    + " nor a property of its request body");
+        }
+    }
+
+    private static Set<String> variables(String pattern) {
+        Matcher matcher = VARIABLE.matcher(pattern);
+        return matcher.results().map(result -> result.group(1)).collect(Collectors.toSet());
+    }
+
+    private static boolean inBody(HandlerMethod method, String name) {
+        for (MethodParameter parameter : method.getMethodParameters()) {
+            if (parameter.hasParameterAnnotation(RequestBody.class)) {
+                PropertyDescriptor property = BeanUtils.getPropertyDescriptor(parameter.getParameterType(), name);
+                return property != null && property.getReadMethod() != null;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.repository.projection.OrderVersionRow;
+import com.demo.smartShop.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Ownership checks behind {@link ClientOwned} and {@link OrderOwned}. An order's owner
+ * comes from its version row (one indexed lookup, no entity loaded), read at most once
+ * per request so that the controller can reuse it, e.g. for the ETag.
+ */
+@Component
+@RequiredArgsConstructor
+public class Ownership {
+
+    private static final String ORDER_VERSION = OrderVersionRow.class.getName();
+
+    private final OrderService orderService;
+
+    public void requireClient(CurrentUser user, Long clientId) {
+        user.requireOwner(clientId, "You can only access your own data");
+    }
+
+    public void requireOrder(HttpServletRequest request, CurrentUser user, Long orderId) {
+        if (user.isAdmin()) {
+            return;
+        }
+        Long owner = orderId == null ? null : orderVersion(request, orderId).clientId();
+        user.requireOwner(owner, "You can only access your own orders");
+    }
+
+    public OrderVersionRow orderVersion(HttpServletRequest request, Long orderId) {
+        if (request.getAttribute(ORDER_VERSION) instanceof CachedVersion cached && cached.orderId().equals(orderId)) {
+            return cached.version();
+        }
+        OrderVersionRow version = orderService.getOrderVersion(orderId);
+        request.setAttribute(ORDER_VERSION, new CachedVersion(orderId, version));
+        return version;
+    }
+
+    private record CachedVersion(Long orderId, OrderVersionRow version) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.exception.ServiceUnavailableException;
+import com.demo.smartShop.util.PasswordUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt hashing and verification on a dedicated, bounded pool.
+ *
+ * Request threads hand the work over and wait for it, so a burst of logins occupies
+ * at most {@code threads} cores instead of every servlet thread. Once the queue is
+ * full, or a caller has waited longer than {@code wait-timeout}, the call fails fast
+ * with a 503 rather than piling up.
+ *
+ * Metrics: smartshop.auth.hash (latency on the pool, tagged with the operation),
+ * smartshop.auth.hash.rejected, and the executor metrics of "auth.hashing",
+ * among them executor.queued for the queue depth.
+ */
+@Component
+@RequiredArgsConstructor
+public class PasswordHasher {
+
+    private static final String BUSY = "Too many authentication requests, please retry shortly";
+
+    private final MeterRegistry meterRegistry;
+
+    // Cost factor of new hashes; passwords hashed with another one are rehashed on login
+    @Value("${smartshop.auth.hashing.cost:12}")
+    private int cost;
+
+    // 0 = one thread per available processor
+    @Value("${smartshop.auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${smartshop.auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${smartshop.auth.hashing.wait-timeout:5s}")
+    private Duration waitTimeout;
+
+    private ThreadPoolExecutor executor;
+    private Timer hashTimer;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "auth.hashing");
+        hashTimer = Timer.builder("smartshop.auth.hash").tag("operation", "hash").register(meterRegistry);
+        verifyTimer = Timer.builder("smartshop.auth.hash").tag("operation", "verify").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String hash(String password) {
+        if (password == null || password.isBlank()) {
+            throw new IllegalArgumentException("Password cannot be null or empty");
+        }
+        return run(hashTimer, () -> PasswordUtil.hash(password, cost));
+    }
+
+    public boolean verify(String password, String hashedPassword) {
+        if (password == null || hashedPassword == null) {
+            return false;
+        }
+        return run(verifyTimer, () -> PasswordUtil.verify(password, hashedPassword));
+    }
+
+    public boolean needsRehash(String hashedPassword) {
+        return PasswordUtil.rounds(hashedPassword) != cost;
+    }
+
+    private <T> T run(Timer timer, Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(work));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("smartshop.auth.hash.rejected").increment();
+            throw new ServiceUnavailableException(BUSY, 1);
+        }
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("smartshop.auth.hash.rejected").increment();
+            throw new ServiceUnavailableException(BUSY, 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(BUSY, 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.entity.enums.UserRole;
+
+/**
+ * What a session token says about its bearer.
+ *
+ * @param clientId  null for users without a client account
+ * @param expiresAt epoch second after which the token is refused
+ */
+public record SessionClaims(long userId, UserRole role, Long clientId, long expiresAt) {
+}
@@ -0,0 +1,38 @@
+package com.demo.smartShop.security;
+
+import java.util.Map;
+
+/**
+ * Where server-side sessions live in store mode (smartshop.session.mode=store).
+ * Times are epoch milliseconds.
+ */
+public interface SessionStore {
+
+    /**
+     * @param attributes immutable snapshot of the session attributes
+     */
+    record SessionData(String id, Map<String, Object> attributes, long createdAt, long expiresAt) {
+    }
+
+    /**
+     * The session, or null if unknown or expired.
+     */
+    SessionData load(String id, long now);
+
+    // Insert or replace the whole session
+    void save(SessionData session);
+
+    // Push back the expiry of a session whose attributes did not change
+    void touch(String id, long expiresAt);
+
+    void delete(String id);
+
+    /**
+     * Delete at most {@code limit} expired sessions.
+     *
+     * @return the number deleted
+     */
+    int deleteExpired(long now, int limit);
+
+    long count(long now);
+}
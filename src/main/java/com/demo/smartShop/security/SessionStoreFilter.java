@@ -0,0 +1,195 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.util.BeforeCommitResponseWrapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Store mode: serves each request's session from a {@link SessionStore}, identified by
+ * a cookie, instead of the container's memory.
+ *
+ * The session is loaded on first use and written back just before the response is
+ * committed, only if its attributes changed: a client never holds a cookie that another
+ * instance cannot find yet. Changes made after the commit are written once the request
+ * is done. An unchanged session only gets its expiry pushed back, and at most once per
+ * half timeout.
+ *
+ * Metric: smartshop.session.store (latency, tagged with the operation).
+ */
+public class SessionStoreFilter extends OncePerRequestFilter {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SessionStore store;
+    private final Duration timeout;
+    private final String cookieName;
+    private final Timer loadTimer;
+    private final Timer saveTimer;
+    private final Timer touchTimer;
+    private final Timer deleteTimer;
+
+    public SessionStoreFilter(SessionStore store, Duration timeout, String cookieName, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.timeout = timeout;
+        this.cookieName = cookieName;
+        this.loadTimer = timer(meterRegistry, "load");
+        this.saveTimer = timer(meterRegistry, "save");
+        this.touchTimer = timer(meterRegistry, "touch");
+        this.deleteTimer = timer(meterRegistry, "delete");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StoredSessionRequest wrapped = new StoredSessionRequest(request, response);
+        try {
+            chain.doFilter(wrapped, new BeforeCommitResponseWrapper(response, wrapped::commit));
+        } finally {
+            wrapped.commit();
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("smartshop.session.store").tag("operation", operation).register(meterRegistry);
+    }
+
+    private static String newSessionId() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private final class StoredSessionRequest extends HttpServletRequestWrapper {
+        private final HttpServletResponse response;
+        private boolean loaded;
+        private StoredSession session;
+        // Persisted session invalidated or renamed during this request
+        private String deletedId;
+
+        private StoredSessionRequest(HttpServletRequest request, HttpServletResponse response) {
+            super(request);
+            this.response = response;
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            if (!loaded) {
+                loaded = true;
+                String id = requestedId();
+                SessionStore.SessionData data = id == null ? null
+                        : loadTimer.record(() -> store.load(id, System.currentTimeMillis()));
+                if (data != null) {
+                    session = open(data, false);
+                }
+            }
+            if (session == null && create) {
+                long now = System.currentTimeMillis();
+                session = open(new SessionStore.SessionData(newSessionId(), Map.of(), now,
+                        now + timeout.toMillis()), true);
+                response.addCookie(cookie(session.getId(), -1));
+            }
+            return session;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        // Session fixation protection: the old id is deleted from the store along with the save
+        @Override
+        public String changeSessionId() {
+            StoredSession current = (StoredSession) getSession(false);
+            if (current == null) {
+                throw new IllegalStateException("No session associated with this request");
+            }
+            forget(current);
+            String newId = newSessionId();
+            current.changeId(newId);
+            response.addCookie(cookie(newId, -1));
+            return newId;
+        }
+
+        @Override
+        public boolean isRequestedSessionIdValid() {
+            HttpSession current = getSession(false);
+            return current != null && !current.isNew();
+        }
+
+        private StoredSession open(SessionStore.SessionData data, boolean isNew) {
+            return new StoredSession(data, isNew, (int) timeout.toSeconds(), getServletContext(), this::invalidated);
+        }
+
+        private void invalidated(StoredSession invalidated) {
+            forget(invalidated);
+            session = null;
+            if (!response.isCommitted()) {
+                response.addCookie(cookie("", 0));
+            }
+        }
+
+        private void forget(StoredSession stored) {
+            if (stored.isStored() && deletedId == null) {
+                deletedId = stored.getId();
+            }
+        }
+
+        // Before the response is committed, then again once the request is done: only what changed in between
+        private void commit() {
+            if (deletedId != null) {
+                String id = deletedId;
+                deletedId = null;
+                deleteTimer.record(() -> store.delete(id));
+            }
+            if (session == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long expiresAt = now + session.getMaxInactiveInterval() * 1000L;
+            if (session.isDirty()) {
+                SessionStore.SessionData data = session.snapshot(expiresAt);
+                saveTimer.record(() -> store.save(data));
+                session.persisted(expiresAt);
+            } else if (session.getExpiresAt() - now < timeout.toMillis() / 2) {
+                String id = session.getId();
+                touchTimer.record(() -> store.touch(id, expiresAt));
+                session.persisted(expiresAt);
+            }
+        }
+
+        private String requestedId() {
+            Cookie[] cookies = getCookies();
+            if (cookies != null) {
+                for (Cookie cookie : cookies) {
+                    if (cookieName.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                        return cookie.getValue();
+                    }
+                }
+            }
+            return null;
+        }
+
+        private Cookie cookie(String value, int maxAge) {
+            Cookie cookie = new Cookie(cookieName, value);
+            cookie.setHttpOnly(true);
+            cookie.setSecure(isSecure());
+            cookie.setPath(getContextPath().isEmpty() ? "/" : getContextPath());
+            cookie.setMaxAge(maxAge);
+            return cookie;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.demo.smartShop.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes expired sessions from the store in batches and refreshes the session count.
+ *
+ * Metrics: smartshop.session.store.sessions (live sessions as of the last sweep) and
+ * smartshop.session.store with operation "sweep".
+ */
+@Slf4j
+public class SessionStoreSweeper {
+
+    private final SessionStore store;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Timer sweepTimer;
+    private final AtomicLong sessions = new AtomicLong();
+
+    public SessionStoreSweeper(SessionStore store, int batchSize, int maxBatches, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.sweepTimer = Timer.builder("smartshop.session.store").tag("operation", "sweep").register(meterRegistry);
+        Gauge.builder("smartshop.session.store.sessions", sessions, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.session.store.sweep-interval-ms:60000}")
+    public void sweep() {
+        int deleted = sweepTimer.record(() -> {
+            long now = System.currentTimeMillis();
+            int total = 0;
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int count = store.deleteExpired(now, batchSize);
+                total += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+            return total;
+        });
+        sessions.set(store.count(System.currentTimeMillis()));
+        if (deleted > 0) {
+            log.debug("Swept {} expired session(s)", deleted);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.config.SessionTokenProperties;
+import com.demo.smartShop.entity.enums.UserRole;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Compact HMAC-SHA256 signed session tokens: {@code <key id>.<claims>.<signature>},
+ * claims and signature in unpadded base64url, about 85 characters in all.
+ *
+ * The claims are a fixed 26-byte record (format version, user id, client id, role,
+ * expiry), so verifying a token is one HMAC over its first two parts plus a few
+ * array reads: no JSON, no splitting, and per-thread buffers and {@link Mac}s
+ * instead of per-call allocations. Tokens signed with any configured key are
+ * accepted; new ones are signed with the first.
+ */
+public class SessionTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte FORMAT_VERSION = 1;
+    private static final int CLAIMS_LENGTH = 1 + Long.BYTES + Long.BYTES + 1 + Long.BYTES;
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int MIN_SECRET_LENGTH = 32;
+    static final int MAX_TOKEN_LENGTH = 256;
+    private static final UserRole[] ROLES = UserRole.values();
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final String[] keyIds;
+    private final SecretKeySpec[] keys;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ThreadLocal<Scratch> scratch;
+
+    private static final class Scratch {
+        private final Mac[] macs;
+        private final byte[] signed = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] expected = new byte[SIGNATURE_LENGTH];
+        private final byte[] decoded = new byte[MAX_TOKEN_LENGTH];
+
+        private Scratch(Mac[] macs) {
+            this.macs = macs;
+        }
+    }
+
+    public SessionTokenCodec(SessionTokenProperties properties, Clock clock) {
+        List<SessionTokenProperties.Key> configured = properties.getKeys();
+        if (configured.isEmpty()) {
+            throw new IllegalStateException("smartshop.session.token.keys must list at least one key");
+        }
+        keyIds = new String[configured.size()];
+        keys = new SecretKeySpec[configured.size()];
+        for (int i = 0; i < keys.length; i++) {
+            SessionTokenProperties.Key key = configured.get(i);
+            if (key.getId() == null || key.getId().isBlank() || key.getId().indexOf('.') >= 0
+                    || Arrays.asList(keyIds).contains(key.getId())) {
+                throw new IllegalStateException("Session token key ids must be unique, non-blank and without '.'");
+            }
+            byte[] secret = key.getSecret() == null ? new byte[0] : key.getSecret().getBytes(StandardCharsets.UTF_8);
+            if (secret.length < MIN_SECRET_LENGTH) {
+                throw new IllegalStateException("Session token key " + key.getId() + " must be at least "
+                        + MIN_SECRET_LENGTH + " bytes");
+            }
+            keyIds[i] = key.getId();
+            keys[i] = new SecretKeySpec(secret, ALGORITHM);
+        }
+        this.ttl = properties.getTtl();
+        this.clock = clock;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMacs()));
+    }
+
+    public String issue(long userId, UserRole role, Long clientId) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        byte[] claims = ByteBuffer.allocate(CLAIMS_LENGTH)
+                .put(FORMAT_VERSION)
+                .putLong(userId)
+                .putLong(clientId == null ? -1 : clientId)
+                .put((byte) role.ordinal())
+                .putLong(expiresAt)
+                .array();
+        String signed = keyIds[0] + "." + ENCODER.encodeToString(claims);
+        byte[] signature = scratch.get().macs[0].doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+        return signed + "." + ENCODER.encodeToString(signature);
+    }
+
+    public SessionClaims verify(String token) {
+        return token == null ? null : verify(token, 0);
+    }
+
+    /**
+     * Claims of the token starting at {@code start} in {@code text}, or null if it is
+     * malformed, signed with an unknown key, tampered with or expired.
+     */
+    public SessionClaims verify(String text, int start) {
+        int end = text.length();
+        if (end - start > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        int keyEnd = text.indexOf('.', start);
+        int claimsEnd = keyEnd < 0 ? -1 : text.indexOf('.', keyEnd + 1);
+        if (claimsEnd < 0) {
+            return null;
+        }
+        int keyIndex = keyIndex(text, start, keyEnd);
+        if (keyIndex < 0) {
+            return null;
+        }
+
+        Scratch buffers = scratch.get();
+        int signedLength = claimsEnd - start;
+        for (int i = 0; i < signedLength; i++) {
+            buffers.signed[i] = (byte) text.charAt(start + i);
+        }
+        Mac mac = buffers.macs[keyIndex];
+        mac.update(buffers.signed, 0, signedLength);
+        try {
+            mac.doFinal(buffers.expected, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        if (decode(text, claimsEnd + 1, end, buffers.decoded) != SIGNATURE_LENGTH
+                || !constantTimeEquals(buffers.expected, buffers.decoded)) {
+            return null;
+        }
+
+        byte[] claims = buffers.decoded;
+        if (decode(text, keyEnd + 1, claimsEnd, claims) != CLAIMS_LENGTH || claims[0] != FORMAT_VERSION) {
+            return null;
+        }
+        long userId = readLong(claims, 1);
+        long clientId = readLong(claims, 9);
+        int role = claims[17];
+        long expiresAt = readLong(claims, 18);
+        if (role < 0 || role >= ROLES.length || expiresAt <= clock.instant().getEpochSecond()) {
+            return null;
+        }
+        return new SessionClaims(userId, ROLES[role], clientId < 0 ? null : clientId, expiresAt);
+    }
+
+    private int keyIndex(String text, int start, int end) {
+        for (int i = 0; i < keyIds.length; i++) {
+            if (keyIds[i].length() == end - start && text.regionMatches(start, keyIds[i], 0, end - start)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Mac[] newMacs() {
+        try {
+            Mac[] macs = new Mac[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                macs[i] = Mac.getInstance(ALGORITHM);
+                macs[i].init(keys[i]);
+            }
+            return macs;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+
+    // Unpadded base64url into out; the decoded length, or -1 if not base64url
+    private static int decode(String text, int from, int to, byte[] out) {
+        int length = (to - from) * 6 / 8;
+        if ((to - from) % 4 == 1 || length > out.length) {
+            return -1;
+        }
+        int bits = 0;
+        int bitCount = 0;
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                out[n++] = (byte) (bits >> bitCount);
+            }
+        }
+        return n;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = value << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static boolean constantTimeEquals(byte[] expected, byte[] actual) {
+        int difference = 0;
+        for (int i = 0; i < expected.length; i++) {
+            difference |= expected[i] ^ actual[i];
+        }
+        return difference == 0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.demo.smartShop.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+
+/**
+ * Token mode: replaces the servlet session of each request with a {@link TokenSession}
+ * built from its {@code Authorization: Bearer} token, so no container session is
+ * ever created. Requests without a valid token see no session.
+ */
+@RequiredArgsConstructor
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final SessionTokenCodec codec;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        SessionClaims claims = authorization != null && authorization.startsWith(BEARER)
+                ? codec.verify(authorization, BEARER.length())
+                : null;
+        chain.doFilter(new TokenSessionRequest(request, claims), response);
+    }
+
+    private static final class TokenSessionRequest extends HttpServletRequestWrapper {
+        private final SessionClaims claims;
+        private TokenSession session;
+
+        private TokenSessionRequest(HttpServletRequest request, SessionClaims claims) {
+            super(request);
+            this.claims = claims;
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            if (session == null && (create || claims != null)) {
+                session = new TokenSession(getServletContext(), claims);
+            }
+            return session;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        @Override
+        public String changeSessionId() {
+            return getSession().getId();
+        }
+
+        @Override
+        public boolean isRequestedSessionIdValid() {
+            return claims != null;
+        }
+    }
+}
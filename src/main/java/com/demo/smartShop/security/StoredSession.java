@@ -0,0 +1,180 @@
+package com.demo.smartShop.security;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSession;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Request-scoped view of a session kept in a {@link SessionStore}. It records whether
+ * its attributes changed, so that the store is only written when they did.
+ */
+public class StoredSession implements HttpSession {
+
+    private String id;
+    private final long creationTime;
+    private long expiresAt;
+    private final boolean isNew;
+    private boolean stored;
+    private final Map<String, Object> attributes;
+    private final ServletContext servletContext;
+    private final Consumer<StoredSession> onInvalidate;
+    private int maxInactiveInterval;
+    private boolean dirty;
+    private boolean invalid;
+
+    StoredSession(SessionStore.SessionData data, boolean isNew, int maxInactiveInterval,
+                  ServletContext servletContext, Consumer<StoredSession> onInvalidate) {
+        this.id = data.id();
+        this.creationTime = data.createdAt();
+        this.expiresAt = data.expiresAt();
+        this.isNew = isNew;
+        this.stored = !isNew;
+        this.attributes = new HashMap<>(data.attributes());
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.servletContext = servletContext;
+        this.onInvalidate = onInvalidate;
+    }
+
+    SessionStore.SessionData snapshot(long expiresAt) {
+        return new SessionStore.SessionData(id, Map.copyOf(attributes), creationTime, expiresAt);
+    }
+
+    // Same attributes under a new id; written back under it
+    void changeId(String newId) {
+        id = newId;
+        dirty = true;
+        stored = false;
+    }
+
+    // A new session stays unsaved until something is stored in it
+    boolean isDirty() {
+        return dirty;
+    }
+
+    // Written to or touched in the store, until the next change
+    void persisted(long expiresAt) {
+        this.expiresAt = expiresAt;
+        dirty = false;
+        stored = true;
+    }
+
+    // Whether the store holds this session under its current id, changed since or not
+    boolean isStored() {
+        return stored;
+    }
+
+    boolean isInvalid() {
+        return invalid;
+    }
+
+    // Expiry when the session was loaded or last persisted
+    long getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public long getLastAccessedTime() {
+        return expiresAt - maxInactiveInterval * 1000L;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    // Applies from the next write of this session
+    @Override
+    public void setMaxInactiveInterval(int interval) {
+        maxInactiveInterval = interval;
+    }
+
+    @Override
+    public int getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public javax.servlet.http.HttpSessionContext getSessionContext() {
+        return null;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public Object getValue(String name) {
+        return getAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public String[] getValueNames() {
+        return attributes.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            removeAttribute(name);
+        } else if (!Objects.equals(attributes.put(name, value), value)) {
+            dirty = true;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void putValue(String name, Object value) {
+        setAttribute(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        if (attributes.remove(name) != null) {
+            dirty = true;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void removeValue(String name) {
+        removeAttribute(name);
+    }
+
+    @Override
+    public void invalidate() {
+        if (!invalid) {
+            invalid = true;
+            attributes.clear();
+            onInvalidate.accept(this);
+        }
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+}
@@ -0,0 +1,128 @@
+package com.demo.smartShop.security;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSession;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request-scoped stand-in for the servlet session in token mode: it starts from the
+ * claims of the request's token and disappears with the request, so nothing is kept
+ * on the server between requests.
+ */
+public class TokenSession implements HttpSession {
+
+    private final ServletContext servletContext;
+    private final long creationTime = System.currentTimeMillis();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final boolean isNew;
+
+    public TokenSession(ServletContext servletContext, SessionClaims claims) {
+        this.servletContext = servletContext;
+        this.isNew = claims == null;
+        if (claims != null) {
+            attributes.put("USER_ID", claims.userId());
+            attributes.put("USER_ROLE", claims.role().name());
+            if (claims.clientId() != null) {
+                attributes.put("CLIENT_ID", claims.clientId());
+            }
+        }
+    }
+
+    @Override
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public String getId() {
+        return "token-" + Integer.toHexString(System.identityHashCode(this));
+    }
+
+    @Override
+    public long getLastAccessedTime() {
+        return creationTime;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(int interval) {
+        // The token expiry applies
+    }
+
+    @Override
+    public int getMaxInactiveInterval() {
+        return -1;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public javax.servlet.http.HttpSessionContext getSessionContext() {
+        return null;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public Object getValue(String name) {
+        return getAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public String[] getValueNames() {
+        return attributes.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void putValue(String name, Object value) {
+        setAttribute(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void removeValue(String name) {
+        removeAttribute(name);
+    }
+
+    // The token itself stays valid until it expires: clients discard it on logout
+    @Override
+    public void invalidate() {
+        attributes.clear();
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+}
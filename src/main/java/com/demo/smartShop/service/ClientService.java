@@ -1,7 +1,9 @@
 package com.demo.smartShop.service;
 
+import com.demo.smartShop.dto.request.ClientBulkRequest;
 import com.demo.smartShop.dto.request.CreateClientRequest;
 import com.demo.smartShop.dto.request.UpdateClientRequest;
+import com.demo.smartShop.dto.response.ClientBulkResultDTO;
 import com.demo.smartShop.dto.response.ClientDTO;
 import com.demo.smartShop.dto.response.OrderDTO;
 import org.springframework.data.domain.Page;
@@ -23,6 +25,8 @@ public interface ClientService {
 
     void deleteClient(Long id);
 
+    ClientBulkResultDTO bulkUpdate(ClientBulkRequest request);
+
     void updateClientStats(Long clientId, BigDecimal orderAmount);
 
     List<OrderDTO> getClientOrders(Long clientId);
@@ -0,0 +1,24 @@
+package com.demo.smartShop.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Exactly-once execution of write requests carrying an {@value #HEADER} header.
+ */
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Run {@code action} once per (scope, key) and return its response.
+     *
+     * A retry with the same key gets the stored response without running the action
+     * again; a duplicate arriving while the first one runs waits for its outcome.
+     * Reusing a key for a different request is rejected. Without a key the action
+     * simply runs.
+     *
+     * @param scope   endpoint and caller the key belongs to
+     * @param request request body, fingerprinted to detect key reuse
+     */
+    <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action);
+}
@@ -0,0 +1,24 @@
+package com.demo.smartShop.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Full order history export, written to the output as it is read.
+ */
+public interface OrderExportService {
+
+    enum Format {
+        // One JSON object per line: the order, its items and its payments
+        NDJSON,
+        // One row per order line, with the order columns repeated and its payments summed
+        CSV
+    }
+
+    /**
+     * Write the orders dated in [since, until), oldest first. Both bounds are optional.
+     * Memory use does not depend on the number of orders.
+     */
+    void exportOrders(LocalDateTime since, LocalDateTime until, Format format, OutputStream out) throws IOException;
+}
@@ -1,16 +1,40 @@
 package com.demo.smartShop.service;
 
+import com.demo.smartShop.dto.request.CreateOrderRequest;
+import com.demo.smartShop.dto.response.CursorPageDTO;
+import com.demo.smartShop.dto.response.OrderBatchResultDTO;
 import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderPricingDTO;
+import com.demo.smartShop.dto.response.PaymentTypeReportDTO;
 import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.repository.projection.OrderVersionRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 public interface OrderService {
     OrderDTO createOrder(OrderDTO orderDTO);
 
+    /**
+     * Create many orders with the same pricing and stock rules as {@link #createOrder},
+     * grouping them into chunked transactions with JDBC statement batching.
+     * Chunks are committed as they go.
+     *
+     * An element whose {@code next()} throws a {@link com.demo.smartShop.exception.ValidationException}
+     * is reported as FAILED at its index and reading goes on.
+     */
+    List<OrderBatchResultDTO> createOrders(Iterator<OrderDTO> orderDTOs);
+
+    /**
+     * Price a cart as {@link #createOrder} would, without writing anything.
+     * Served from the in-memory price snapshot, so stock availability is indicative.
+     */
+    OrderPricingDTO quoteOrder(CreateOrderRequest request);
+
     OrderDTO confirmOrder(Long orderId);
 
     OrderDTO cancelOrder(Long orderId);
@@ -21,8 +45,27 @@ public interface OrderService {
 
     Page<OrderDTO> getOrdersByClientId(Long clientId, Pageable pageable);
 
+    /**
+     * Keyset page of orders, newest first, seeking on (date, id). Pass the previous
+     * page's nextCursor, or null for the first page. No total count is computed.
+     */
+    CursorPageDTO<OrderDTO> getOrdersAfter(String cursor, int size);
+
+    CursorPageDTO<OrderDTO> getOrdersByClientIdAfter(Long clientId, String cursor, int size);
+
     OrderDTO getOrderById(Long id);
 
-    Map<PaymentType, List<OrderDTO>> getOrdersGroupedByPaymentType();
+    /**
+     * Owner and ETag of an order, read without loading it: enough to answer a conditional GET.
+     */
+    OrderVersionRow getOrderVersion(Long id);
+
+    /**
+     * Per payment type, payment count and total plus one page of the distinct orders
+     * paid with it, for payments dated in [from, to). Both bounds are optional.
+     * Orders come newest first unless the page asks for another sort; the id always breaks ties.
+     */
+    Map<PaymentType, PaymentTypeReportDTO> getOrdersGroupedByPaymentType(LocalDateTime from, LocalDateTime to,
+                                                                         Pageable pageable);
 
 }
@@ -0,0 +1,20 @@
+package com.demo.smartShop.service;
+
+import com.demo.smartShop.dto.response.OrderPricingDTO;
+import com.demo.smartShop.entity.enums.CustomerTier;
+
+import java.math.BigDecimal;
+
+/**
+ * Loyalty discount, promo code and TVA computation for an order.
+ */
+public interface PricingEngine {
+
+    /**
+     * Price an order from its subtotal. Amounts are rounded HALF_UP to the cent
+     * at each step, exactly as createOrder always did.
+     */
+    OrderPricingDTO price(BigDecimal subTotal, CustomerTier tier, String promoCode);
+
+    boolean isPromoCodeFormatValid(String promoCode);
+}
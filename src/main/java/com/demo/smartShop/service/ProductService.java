@@ -7,11 +7,31 @@ import org.springframework.data.domain.Pageable;
 public interface ProductService {
     Page<ProductDTO> getAllProducts(Pageable pageable);
 
+    /**
+     * A listing page together with the strong ETag of the catalog as it was when the page
+     * was read: the ETag changes whenever any product is added, changed or removed.
+     */
+    CatalogPage getCatalogPage(Pageable pageable);
+
     ProductDTO getProductById(Long id);
 
+    /**
+     * Products whose name or description contains every word of {@code query}, whole or
+     * as a prefix, accents ignored; best matches first. Soft-deleted products are excluded.
+     */
+    Page<ProductDTO> searchProducts(String query, Pageable pageable);
+
+    /**
+     * Strong ETag of a product, from its version column.
+     */
+    String getProductETag(Long id);
+
     ProductDTO createProduct(ProductDTO productDTO);
 
     ProductDTO updateProduct(Long id, ProductDTO productDTO);
 
     ProductDTO deleteProduct(Long id);
+
+    record CatalogPage(Page<ProductDTO> page, String eTag) {
+    }
 }
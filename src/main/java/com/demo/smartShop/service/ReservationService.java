@@ -0,0 +1,29 @@
+package com.demo.smartShop.service;
+
+import com.demo.smartShop.entity.Order;
+
+import java.util.Map;
+
+/**
+ * Time-bounded stock reservations held by PENDING orders.
+ */
+public interface ReservationService {
+
+    /**
+     * Record the units (per product id) the order has just taken from stock.
+     * They are released automatically once the configured TTL has elapsed
+     * if the order is still PENDING and unpaid.
+     */
+    void reserve(Order order, Map<Long, Integer> quantities);
+
+    void consume(Long orderId);
+
+    void release(Long orderId);
+
+    /**
+     * Cancel expired, unpaid PENDING orders and give their stock back, in batches.
+     *
+     * @return the number of orders released
+     */
+    int releaseExpiredReservations();
+}
@@ -8,6 +8,13 @@ public interface StockService {
 
     boolean isStockAvailable(Long productId, int quantity);
 
+    /**
+     * Atomically take {@code quantity} units if they are available.
+     *
+     * @return false if the product does not exist or has not enough stock
+     */
+    boolean tryDecrementStock(Long productId, int quantity);
+
     void decrementStock(Long productId, int quantity);
 
     void incrementStock(Long productId, int quantity);
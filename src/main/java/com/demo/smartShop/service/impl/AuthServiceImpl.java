@@ -2,13 +2,15 @@ package com.demo.smartShop.service.impl;
 
 import com.demo.smartShop.dto.response.UserDTO;
 import com.demo.smartShop.entity.User;
+import com.demo.smartShop.exception.ServiceUnavailableException;
 import com.demo.smartShop.exception.UnauthorizedException;
 import com.demo.smartShop.mapper.UserMapper;
 import com.demo.smartShop.repository.UserRepository;
+import com.demo.smartShop.security.PasswordHasher;
 import com.demo.smartShop.service.AuthService;
 import com.demo.smartShop.service.SessionService;
-import com.demo.smartShop.util.PasswordUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.servlet.http.HttpSession;
@@ -16,11 +18,13 @@ import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final SessionService sessionService;
     private final UserMapper userMapper;
+    private final PasswordHasher passwordHasher;
 
     @Override
     public UserDTO login(String username, String password, HttpSession session) {
@@ -31,9 +35,10 @@ public class AuthServiceImpl implements AuthService {
             User user = userOpt.get();
             System.out.println("✓ User found: " + user.getUsername());
 
-            // Use BCrypt to verify password
-            if (PasswordUtil.verify(password, user.getPassword())) {
+            // Use BCrypt to verify password, off the request thread
+            if (passwordHasher.verify(password, user.getPassword())) {
                 System.out.println("✓ Password match! Login successful");
+                rehashIfNeeded(user, password);
 
                 // Create session
                 sessionService.createSession(session, user);
@@ -49,6 +54,23 @@ public class AuthServiceImpl implements AuthService {
         throw new UnauthorizedException("Invalid username or password");
     }
 
+    // The plain password is only known here: bring the hash to the configured cost
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            String previous = user.getPassword();
+            String rehashed = passwordHasher.hash(password);
+            if (userRepository.replacePassword(user.getId(), previous, rehashed) == 1) {
+                user.setPassword(rehashed);
+            }
+        } catch (ServiceUnavailableException e) {
+            // Not worth failing the login for: retried on the next one
+            log.debug("Password rehash of user {} postponed: {}", user.getId(), e.getMessage());
+        }
+    }
+
     @Override
     public void logout(HttpSession session) {
         if (session != null) {
@@ -58,6 +80,9 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public UserDTO getCurrentUser(HttpSession session) {
+        if (session == null) {
+            throw new UnauthorizedException("User not authenticated");
+        }
         Long userId = sessionService.getCurrentUserId(session)
                 .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
 
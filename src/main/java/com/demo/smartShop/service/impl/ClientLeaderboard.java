@@ -0,0 +1,175 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.ClientDTO;
+import com.demo.smartShop.repository.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * The clients with the highest total spent, kept in memory for GET /api/clients/top.
+ *
+ * The board always holds the true top N of the database (N up to the configured size):
+ * a client whose stats change after commit enters it only when it outranks the last
+ * entry, since clients outside the board are not known. Limits above the board size are
+ * answered by the database. A periodic rebuild from the database repairs any drift.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClientLeaderboard {
+
+    private static final Comparator<ClientDTO> RANKING = Comparator
+            .comparing(ClientDTO::getTotalSpent, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ClientDTO::getId);
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    private final ClientRepository clientRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${smartshop.clients.leaderboard.size:100}")
+    private int capacity;
+
+    // Guarded by this
+    private final TreeSet<ClientDTO> ranking = new TreeSet<>(RANKING);
+    private final Map<Long, ClientDTO> byId = new HashMap<>();
+    private long changes;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @return the best {@code limit} clients, or empty when the board holds fewer
+     */
+    public synchronized Optional<List<ClientDTO>> top(int limit) {
+        if (limit < 1 || limit > ranking.size()) {
+            return Optional.empty();
+        }
+        List<ClientDTO> top = new ArrayList<>(limit);
+        for (ClientDTO client : ranking) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(client);
+        }
+        return Optional.of(top);
+    }
+
+    // Stats of a client changed
+    public void offer(ClientDTO client) {
+        afterCommit(() -> apply(client));
+    }
+
+    // Details of a client changed, not its rank
+    public void refresh(ClientDTO client) {
+        afterCommit(() -> replace(client));
+    }
+
+    public void remove(Long clientId) {
+        afterCommit(() -> evict(List.of(clientId)));
+    }
+
+    public void removeAll(Collection<Long> clientIds) {
+        afterCommit(() -> evict(clientIds));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${smartshop.clients.leaderboard.rebuild-interval-ms:300000}",
+            initialDelayString = "${smartshop.clients.leaderboard.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        for (int attempt = 0; attempt < REBUILD_ATTEMPTS; attempt++) {
+            long seen;
+            synchronized (this) {
+                seen = changes;
+            }
+            List<ClientDTO> top = readOnlyTransaction.execute(status ->
+                    clientRepository.findTopProjected(PageRequest.of(0, capacity)));
+            synchronized (this) {
+                // A change applied meanwhile may be missing from what was read: read again
+                if (changes == seen) {
+                    ranking.clear();
+                    byId.clear();
+                    top.forEach(this::insert);
+                    return;
+                }
+            }
+        }
+        log.warn("Client leaderboard rebuild skipped: clients kept changing");
+    }
+
+    private synchronized void apply(ClientDTO client) {
+        changes++;
+        ClientDTO previous = byId.remove(client.getId());
+        if (previous != null) {
+            ranking.remove(previous);
+        } else if (ranking.isEmpty() || RANKING.compare(client, ranking.last()) > 0) {
+            return;
+        }
+        insert(client);
+        while (ranking.size() > capacity) {
+            byId.remove(ranking.pollLast().getId());
+        }
+    }
+
+    private synchronized void replace(ClientDTO client) {
+        changes++;
+        ClientDTO previous = byId.remove(client.getId());
+        if (previous != null) {
+            ranking.remove(previous);
+            insert(client);
+        }
+    }
+
+    private synchronized void evict(Collection<Long> clientIds) {
+        changes++;
+        for (Long clientId : clientIds) {
+            ClientDTO previous = byId.remove(clientId);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+        }
+    }
+
+    private void insert(ClientDTO client) {
+        ranking.add(client);
+        byId.put(client.getId(), client);
+    }
+
+    // Never publish values of a transaction that may still roll back
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.demo.smartShop.service.impl;
 
+import com.demo.smartShop.concurrency.RetryOnConflict;
+import com.demo.smartShop.dto.request.ClientBulkRequest;
 import com.demo.smartShop.dto.request.CreateClientRequest;
 import com.demo.smartShop.dto.request.UpdateClientRequest;
+import com.demo.smartShop.dto.response.ClientBulkResultDTO;
 import com.demo.smartShop.dto.response.ClientDTO;
 import com.demo.smartShop.dto.response.OrderDTO;
 import com.demo.smartShop.entity.Client;
@@ -12,34 +15,44 @@ import com.demo.smartShop.entity.enums.OrderStatus;
 import com.demo.smartShop.entity.enums.UserRole;
 import com.demo.smartShop.exception.ResourceNotFoundException;
 import com.demo.smartShop.mapper.ClientMapper;
-import com.demo.smartShop.mapper.OrderMapper;
 import com.demo.smartShop.repository.ClientRepository;
 import com.demo.smartShop.repository.OrderRepository;
 import com.demo.smartShop.repository.UserRepository;
+import com.demo.smartShop.security.PasswordHasher;
 import com.demo.smartShop.service.ClientService;
-import com.demo.smartShop.util.PasswordUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final ClientMapper clientMapper;
-    private final OrderMapper orderMapper;
+    private final PricingSnapshot pricingSnapshot;
+    private final ClientLeaderboard leaderboard;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordHasher passwordHasher;
+
+    @Value("${smartshop.clients.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
 
     @Override
     @Transactional
@@ -68,7 +81,7 @@ public class ClientServiceImpl implements ClientService {
         // Create User account linked to Client with HASHED password
         User user = User.builder()
                 .username(request.getUsername())
-                .password(PasswordUtil.hash(request.getPassword()))
+                .password(passwordHasher.hash(request.getPassword()))
                 .role(UserRole.CLIENT)
                 .client(savedClient)
                 .build();
@@ -99,11 +112,13 @@ public class ClientServiceImpl implements ClientService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ClientDTO> getAllClients(Pageable pageable) {
-        return clientRepository.findAll(pageable).map(clientMapper::toDTO);
+        return clientRepository.findAllProjected(pageable);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public ClientDTO updateClient(Long id, UpdateClientRequest request) {
         Client client = clientRepository.findById(id)
@@ -112,7 +127,9 @@ public class ClientServiceImpl implements ClientService {
         client.setNom(request.getNom());
         client.setEmail(request.getEmail());
 
-        return clientMapper.toDTO(clientRepository.save(client));
+        ClientDTO updated = clientMapper.toDTO(clientRepository.save(client));
+        leaderboard.refresh(updated);
+        return updated;
     }
 
     @Override
@@ -123,17 +140,45 @@ public class ClientServiceImpl implements ClientService {
 
         // Delete associated user account first (if exists) to avoid foreign key
         // constraint
-        userRepository.findByUsername(client.getEmail())
-                .or(() -> userRepository.findAll().stream()
-                        .filter(u -> u.getClient() != null && u.getClient().getId().equals(id))
-                        .findFirst())
-                .ifPresent(userRepository::delete);
+        userRepository.findByClientId(id).ifPresent(userRepository::delete);
 
         clientRepository.delete(client);
+        pricingSnapshot.evictClient(id);
+        leaderboard.remove(id);
+    }
+
+    /**
+     * Delete or archive many clients with a few set-based statements per chunk, one
+     * transaction per chunk. Their user accounts are always deleted; clients that have
+     * orders are archived rather than deleted, even for {@code DELETE}.
+     */
+    @Override
+    public ClientBulkResultDTO bulkUpdate(ClientBulkRequest request) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getClientIds()));
+        ClientBulkResultDTO result = ClientBulkResultDTO.builder().requested(ids.size()).build();
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                result.setUsersDeleted(result.getUsersDeleted() + userRepository.deleteByClientIdIn(chunk));
+                if (request.getAction() == ClientBulkRequest.Action.DELETE) {
+                    result.setArchived(result.getArchived() + clientRepository.archiveWithOrdersByIdIn(chunk));
+                    result.setDeleted(result.getDeleted() + clientRepository.deleteWithoutOrdersByIdIn(chunk));
+                } else {
+                    result.setArchived(result.getArchived() + clientRepository.archiveByIdIn(chunk));
+                }
+                pricingSnapshot.evictClients(chunk);
+                leaderboard.removeAll(chunk);
+            });
+        }
+        result.setSkipped(result.getRequested() - result.getDeleted() - result.getArchived());
+        log.info("Bulk {} of {} client(s): {} deleted, {} archived, {} skipped", request.getAction(),
+                result.getRequested(), result.getDeleted(), result.getArchived(), result.getSkipped());
+        return result;
     }
 
     // met à jour les statistiques d'un client après qu'une commande soit confirmée.
     @Override
+    @RetryOnConflict
     @Transactional
     public void updateClientStats(Long clientId, BigDecimal orderAmount) {
         Client client = clientRepository.findById(clientId)
@@ -154,19 +199,20 @@ public class ClientServiceImpl implements ClientService {
         // Update tier based on total spent
         updateClientTier(client);
 
-        clientRepository.save(client);
+        Client saved = clientRepository.save(client);
+        pricingSnapshot.refresh(saved);
+        leaderboard.offer(clientMapper.toDTO(saved));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDTO> getClientOrders(Long clientId) {
         // Verify client exists
         if (!clientRepository.existsById(clientId)) {
             throw new ResourceNotFoundException("Client", "id", clientId);
         }
 
-        return orderRepository.findByClientId(clientId, Pageable.unpaged()).stream()
-                .map(orderMapper::toDTO)
-                .collect(Collectors.toList());
+        return orderRepository.attachItems(orderRepository.findHeadersByClientId(clientId));
     }
 
     private void updateClientTier(Client client) {
@@ -183,12 +229,10 @@ public class ClientServiceImpl implements ClientService {
         }
     }
 
+    // Served from the leaderboard when it holds enough clients; no transaction, no connection
     @Override
     public List<ClientDTO> getTopClientsByTotalSpent(int limit) {
-        return clientRepository.findAll().stream()
-                .sorted(Comparator.comparing(Client::getTotalSpent).reversed())
-                .limit(limit)
-                .map(clientMapper::toDTO)
-                .collect(Collectors.toList());
+        return leaderboard.top(limit)
+                .orElseGet(() -> clientRepository.findTopProjected(PageRequest.of(0, limit)));
     }
 }
@@ -0,0 +1,295 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.concurrency.ConflictRetrier;
+import com.demo.smartShop.entity.IdempotencyRecord;
+import com.demo.smartShop.entity.enums.IdempotencyStatus;
+import com.demo.smartShop.exception.BusinessRuleException;
+import com.demo.smartShop.exception.ConflictException;
+import com.demo.smartShop.exception.ValidationException;
+import com.demo.smartShop.repository.IdempotencyRecordRepository;
+import com.demo.smartShop.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys backed by a bounded in-memory map and the idempotency_records table.
+ *
+ * The map holds one future per key: duplicates arriving on this instance wait on it
+ * instead of racing the first request. The table makes keys survive restarts and
+ * work across instances: a key is claimed (PROCESSING row, own transaction) before
+ * the action runs, and marked COMPLETED with the response in the action's own
+ * transaction, so an order is never committed without its record.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final String IN_PROGRESS = "A request with this Idempotency-Key is still being processed";
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ConflictRetrier conflictRetrier;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${smartshop.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${smartshop.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    // Age after which a PROCESSING claim is considered abandoned and can be taken over
+    @Value("${smartshop.idempotency.processing-timeout:60s}")
+    private Duration processingTimeout;
+
+    @Value("${smartshop.idempotency.wait-timeout:30s}")
+    private Duration waitTimeout;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate newTransaction;
+
+    private static final class Entry {
+        private final String requestHash;
+        private final CompletableFuture<String> responseBody = new CompletableFuture<>();
+        // System.nanoTime() deadline, set once the response is known
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+
+    // Key owned by this call (claimedAt set), or response of a completed earlier request
+    private record Claim(LocalDateTime claimedAt, String responseBody) {
+    }
+
+    @PostConstruct
+    void initTransactionTemplates() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String recordKey = scope + ":" + key;
+        String requestHash = fingerprint(request);
+
+        while (true) {
+            Entry entry = new Entry(requestHash);
+            Entry existing = entries.putIfAbsent(recordKey, entry);
+            if (existing == null) {
+                return executeFirst(recordKey, entry, responseType, action);
+            }
+            if (existing.isExpired(System.nanoTime())) {
+                entries.remove(recordKey, existing);
+                continue;
+            }
+            checkSameRequest(existing.requestHash, requestHash);
+            return read(await(existing), responseType);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.idempotency.purge-interval-ms:600000}",
+            initialDelayString = "${smartshop.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        purgeLocal();
+        int deleted = newTransaction.execute(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency record(s)", deleted);
+        }
+    }
+
+    // Forget the in-memory entries, as after a restart
+    void clearLocalEntries() {
+        entries.clear();
+    }
+
+    private <T> T executeFirst(String recordKey, Entry entry, Class<T> responseType, Supplier<T> action) {
+        Claim claim = null;
+        try {
+            claim = claim(recordKey, entry.requestHash);
+            if (claim.responseBody() != null) {
+                complete(recordKey, entry, claim.responseBody());
+                return read(claim.responseBody(), responseType);
+            }
+
+            LocalDateTime claimedAt = claim.claimedAt();
+            AtomicReference<String> responseBody = new AtomicReference<>();
+            // The action joins this transaction, so conflicts are retried here rather than in the service
+            T response = conflictRetrier.execute("IdempotencyService.execute", () -> transactionTemplate.execute(status -> {
+                T result = action.get();
+                String body = write(result);
+                if (recordRepository.complete(recordKey, claimedAt, body) != 1) {
+                    // Claim lost to a takeover: roll the action back rather than apply it twice
+                    throw new ConflictException(IN_PROGRESS);
+                }
+                responseBody.set(body);
+                return result;
+            }));
+            complete(recordKey, entry, responseBody.get());
+            return response;
+        } catch (RuntimeException e) {
+            if (claim != null && claim.claimedAt() != null) {
+                LocalDateTime claimedAt = claim.claimedAt();
+                // Let the client retry the same key once the failure is fixed
+                newTransaction.executeWithoutResult(status -> recordRepository.releaseClaim(recordKey, claimedAt));
+            }
+            entries.remove(recordKey, entry);
+            entry.responseBody.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Claim claim(String recordKey, String requestHash) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            IdempotencyRecord stored = newTransaction.execute(status ->
+                    recordRepository.findById(recordKey).orElse(null));
+
+            if (stored == null) {
+                try {
+                    newTransaction.executeWithoutResult(status -> entityManager.persist(IdempotencyRecord.builder()
+                            .key(recordKey)
+                            .requestHash(requestHash)
+                            .status(IdempotencyStatus.PROCESSING)
+                            .createdAt(now)
+                            .expiresAt(now.plus(ttl))
+                            .build()));
+                    return new Claim(now, null);
+                } catch (DataIntegrityViolationException | PersistenceException e) {
+                    // Claimed concurrently by another instance: read it again
+                    continue;
+                }
+            }
+
+            checkSameRequest(stored.getRequestHash(), requestHash);
+            if (stored.getStatus() == IdempotencyStatus.COMPLETED) {
+                if (stored.getExpiresAt().isAfter(now)) {
+                    return new Claim(null, stored.getResponseBody());
+                }
+                newTransaction.executeWithoutResult(status -> recordRepository.delete(stored));
+                continue;
+            }
+            if (stored.getCreatedAt().isAfter(now.minus(processingTimeout))) {
+                throw new ConflictException(IN_PROGRESS);
+            }
+            Integer taken = newTransaction.execute(status ->
+                    recordRepository.takeOver(recordKey, stored.getCreatedAt(), now));
+            if (taken != null && taken == 1) {
+                log.warn("Taking over abandoned idempotency claim {}", recordKey);
+                return new Claim(now, null);
+            }
+        }
+        throw new ConflictException(IN_PROGRESS);
+    }
+
+    private void complete(String recordKey, Entry entry, String responseBody) {
+        entry.expiresAt = System.nanoTime() + ttl.toNanos();
+        entry.responseBody.complete(responseBody);
+        if (entries.size() > maxEntries) {
+            purgeLocal();
+            if (entries.size() > maxEntries) {
+                // Still full: serve this key from the table from now on
+                entries.remove(recordKey, entry);
+            }
+        }
+    }
+
+    private void purgeLocal() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    private String await(Entry entry) {
+        try {
+            return entry.responseBody.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException(IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException(IN_PROGRESS);
+        } catch (ExecutionException e) {
+            // The first request failed: report the same error
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new BusinessRuleException("Idempotency-Key already used for a different request",
+                    "IDEMPOTENCY_KEY_REUSED");
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store idempotent response", e);
+        }
+    }
+
+    private <T> T read(String responseBody, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(responseBody, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read idempotent response", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderExportDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.PaymentDTO;
+import com.demo.smartShop.entity.enums.PaymentStatus;
+import com.demo.smartShop.exception.ValidationException;
+import com.demo.smartShop.repository.OrderRepository;
+import com.demo.smartShop.repository.PaymentRepository;
+import com.demo.smartShop.service.OrderExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams order headers through a forward-only cursor and completes them chunk by
+ * chunk: each chunk of {@code fetch-size} orders gets its items and payments in two
+ * queries, is written and flushed, then dropped. Rows are read as DTO projections,
+ * so nothing accumulates in the persistence context.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final String CSV_HEADER = "order_id,date,client_id,client_name,status,sub_total,discount_amount,"
+            + "tax_amount,total_amount,remaining_amount,promo_code,item_id,product_id,product_name,quantity,"
+            + "unit_price,total_line,payment_count,paid_amount";
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows per JDBC round trip, also the number of orders completed and written at once
+    @Value("${smartshop.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDateTime since, LocalDateTime until, Format format, OutputStream out)
+            throws IOException {
+        LocalDateTime lower = since != null ? since : MIN_DATE;
+        LocalDateTime upper = until != null ? until : MAX_DATE;
+        if (!lower.isBefore(upper)) {
+            throw new ValidationException("'since' must be before 'until'");
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(OrderExportDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<OrderDTO> orders = entityManager.createQuery(OrderRepository.ORDER_HEADER
+                        + " WHERE o.date >= :since AND o.date < :until ORDER BY o.id", OrderDTO.class)
+                .setParameter("since", lower)
+                .setParameter("until", upper)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+            Iterator<OrderDTO> iterator = orders.iterator();
+            List<OrderDTO> chunk = new ArrayList<>(fetchSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == fetchSize || !iterator.hasNext()) {
+                    writeChunk(chunk, format, writer, jsonWriter);
+                    chunk.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeChunk(List<OrderDTO> chunk, Format format, Writer writer, ObjectWriter jsonWriter)
+            throws IOException {
+        orderRepository.attachItems(chunk);
+        Map<Long, List<PaymentDTO>> payments = paymentRepository.findDTOsByOrderIdIn(
+                        chunk.stream().map(OrderDTO::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(PaymentDTO::getOrderId));
+
+        for (OrderDTO order : chunk) {
+            List<PaymentDTO> orderPayments = payments.getOrDefault(order.getId(), List.of());
+            if (format == Format.NDJSON) {
+                jsonWriter.writeValue(writer, new OrderExportDTO(order, orderPayments));
+                writer.write('\n');
+            } else {
+                writeCsv(order, orderPayments, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(OrderDTO order, List<PaymentDTO> payments, Writer writer) throws IOException {
+        BigDecimal paid = payments.stream()
+                .filter(payment -> payment.getStatus() != PaymentStatus.ANNULEE)
+                .map(PaymentDTO::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        String orderColumns = csv(order.getId(), order.getDate(), order.getClientId(), order.getClientName(),
+                order.getStatus(), order.getSubTotal(), order.getDiscountAmount(), order.getTaxAmount(),
+                order.getTotalAmount(), order.getRemainingAmount(), order.getPromoCode());
+        String paymentColumns = csv(payments.size(), paid);
+
+        List<OrderItemDTO> items = order.getItems();
+        if (items.isEmpty()) {
+            writer.write(orderColumns + ",,,,,,," + paymentColumns + "\n");
+            return;
+        }
+        for (OrderItemDTO item : items) {
+            writer.write(orderColumns + ',' + csv(item.getId(), item.getProductId(), item.getProductName(),
+                    item.getQuantity(), item.getUnitPrice(), item.getTotalLine()) + ',' + paymentColumns + '\n');
+        }
+    }
+
+    private static String csv(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String value = values[i] instanceof BigDecimal amount ? amount.toPlainString() : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+}
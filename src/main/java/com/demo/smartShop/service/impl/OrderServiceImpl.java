@@ -1,40 +1,73 @@
 package com.demo.smartShop.service.impl;
 
+import com.demo.smartShop.concurrency.RetryOnConflict;
+import com.demo.smartShop.dto.request.CreateOrderRequest;
+import com.demo.smartShop.dto.request.OrderItemRequest;
+import com.demo.smartShop.dto.response.CursorPageDTO;
+import com.demo.smartShop.dto.response.OrderBatchResultDTO;
 import com.demo.smartShop.dto.response.OrderDTO;
 import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.OrderPricingDTO;
+import com.demo.smartShop.dto.response.PaymentTypeReportDTO;
 import com.demo.smartShop.entity.Client;
 import com.demo.smartShop.entity.Order;
 import com.demo.smartShop.entity.OrderItem;
-import com.demo.smartShop.entity.Payment;
 import com.demo.smartShop.entity.Product;
 import com.demo.smartShop.entity.enums.CustomerTier;
 import com.demo.smartShop.entity.enums.OrderStatus;
 import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.event.ProductsChangedEvent;
+import com.demo.smartShop.exception.ValidationException;
 import com.demo.smartShop.mapper.OrderMapper;
 import com.demo.smartShop.repository.ClientRepository;
 import com.demo.smartShop.repository.OrderRepository;
 import com.demo.smartShop.repository.PaymentRepository;
 import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.repository.projection.OrderVersionRow;
+import com.demo.smartShop.repository.projection.PaymentTypeTotalsRow;
 import com.demo.smartShop.service.ClientService;
 import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.PricingEngine;
+import com.demo.smartShop.service.ReservationService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
@@ -43,18 +76,221 @@ public class OrderServiceImpl implements OrderService {
     private final PaymentRepository paymentRepository;
     private final OrderMapper orderMapper;
     private final ClientService clientService;
+    private final ReservationService reservationService;
+    private final PricingEngine pricingEngine;
+    private final PricingSnapshot pricingSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @org.springframework.beans.factory.annotation.Value("${smartshop.tva-rate:0.20}")
-    private BigDecimal tvaRate;
+    private final TransactionTemplate transactionTemplate;
 
-    private static final Pattern PROMO_PATTERN = Pattern.compile("PROMO-[A-Z0-9]{4}");
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @org.springframework.beans.factory.annotation.Value("${smartshop.orders.batch.chunk-size:100}")
+    private int batchChunkSize;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // Open bounds of the payment type report, kept as values rather than nullable parameters
+    private static final LocalDateTime REPORT_MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime REPORT_MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     @Override
+    @RetryOnConflict
     @Transactional
     public OrderDTO createOrder(OrderDTO orderDTO) {
         Client client = clientRepository.findById(orderDTO.getClientId())
                 .orElseThrow(() -> new EntityNotFoundException("Client not found"));
 
+        // Load and lock every product of the cart in one query (ascending id order)
+        Map<Long, Integer> requestedQuantities = requestedQuantities(orderDTO);
+        Map<Long, Product> products = lockProducts(requestedQuantities.keySet());
+
+        return orderMapper.toDTO(placeOrder(orderDTO, client, requestedQuantities, products));
+    }
+
+    @Override
+    public List<OrderBatchResultDTO> createOrders(Iterator<OrderDTO> orderDTOs) {
+        List<OrderBatchResultDTO> results = new ArrayList<>();
+        List<OrderDTO> chunk = new ArrayList<>(batchChunkSize);
+        int firstIndex = 0;
+        int index = 0;
+        while (orderDTOs.hasNext()) {
+            OrderDTO orderDTO;
+            try {
+                orderDTO = orderDTOs.next();
+            } catch (ValidationException e) {
+                // Unreadable order: place what precedes it so results stay in submission order
+                if (!chunk.isEmpty()) {
+                    results.addAll(processChunk(chunk, firstIndex));
+                    chunk.clear();
+                }
+                results.add(OrderBatchResultDTO.failed(index++, e.getMessage()));
+                firstIndex = index;
+                continue;
+            }
+            chunk.add(orderDTO);
+            index++;
+            if (chunk.size() == batchChunkSize) {
+                results.addAll(processChunk(chunk, firstIndex));
+                firstIndex = index;
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk(chunk, firstIndex));
+        }
+        return results;
+    }
+
+    /**
+     * Place one chunk of orders in a single transaction. If the transaction fails
+     * as a whole, the chunk is replayed one order per transaction so that only
+     * the faulty orders are reported as FAILED.
+     */
+    private List<OrderBatchResultDTO> processChunk(List<OrderDTO> chunk, int firstIndex) {
+        try {
+            return transactionTemplate.execute(status -> placeChunk(chunk, firstIndex));
+        } catch (RuntimeException e) {
+            log.warn("Batch chunk starting at index {} failed, replaying order by order: {}", firstIndex, e.getMessage());
+        }
+
+        List<OrderBatchResultDTO> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            List<OrderDTO> single = List.of(chunk.get(i));
+            int index = firstIndex + i;
+            try {
+                results.add(transactionTemplate.execute(status -> placeChunk(single, index)).get(0));
+            } catch (RuntimeException e) {
+                results.add(OrderBatchResultDTO.failed(index, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private List<OrderBatchResultDTO> placeChunk(List<OrderDTO> chunk, int firstIndex) {
+        // Group the INSERT/UPDATE statements of the whole chunk into JDBC batches
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchChunkSize);
+
+        OrderBatchResultDTO[] results = new OrderBatchResultDTO[chunk.size()];
+        Set<Long> clientIds = new HashSet<>();
+        Set<Long> productIds = new TreeSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            OrderDTO orderDTO = chunk.get(i);
+            String error = validateForBatch(orderDTO);
+            if (error != null) {
+                results[i] = OrderBatchResultDTO.failed(firstIndex + i, error);
+                continue;
+            }
+            clientIds.add(orderDTO.getClientId());
+            orderDTO.getItems().forEach(item -> productIds.add(item.getProductId()));
+        }
+
+        // One query for the clients and one locking query for all the products of the chunk
+        Map<Long, Client> clients = clientRepository.findAllById(clientIds).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+        Map<Long, Product> products = lockProducts(productIds);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            OrderDTO orderDTO = chunk.get(i);
+            Client client = clients.get(orderDTO.getClientId());
+            if (client == null) {
+                results[i] = OrderBatchResultDTO.failed(firstIndex + i, "Client not found");
+                continue;
+            }
+            Long missingProduct = orderDTO.getItems().stream()
+                    .map(OrderItemDTO::getProductId)
+                    .filter(productId -> !products.containsKey(productId))
+                    .findFirst()
+                    .orElse(null);
+            if (missingProduct != null) {
+                results[i] = OrderBatchResultDTO.failed(firstIndex + i, "Product not found: " + missingProduct);
+                continue;
+            }
+
+            Order order = placeOrder(orderDTO, client, requestedQuantities(orderDTO), products);
+            results[i] = OrderBatchResultDTO.builder()
+                    .index(firstIndex + i)
+                    .outcome(order.getStatus() == OrderStatus.REJECTED
+                            ? OrderBatchResultDTO.Outcome.REJECTED
+                            : OrderBatchResultDTO.Outcome.CREATED)
+                    .orderId(order.getId())
+                    .totalAmount(order.getTotalAmount())
+                    .build();
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public OrderPricingDTO quoteOrder(CreateOrderRequest request) {
+        CustomerTier tier = pricingSnapshot.tierOf(request.getClientId());
+
+        Map<Long, Integer> requestedQuantities = new TreeMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            requestedQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        Map<Long, PricingSnapshot.ProductEntry> products = pricingSnapshot.products(requestedQuantities.keySet());
+
+        // Same line arithmetic as placeOrder
+        BigDecimal subTotal = BigDecimal.ZERO;
+        boolean stockAvailable = true;
+        for (OrderItemRequest item : request.getItems()) {
+            PricingSnapshot.ProductEntry product = products.get(item.getProductId());
+            if (product == null) {
+                throw new EntityNotFoundException("Product not found: " + item.getProductId());
+            }
+            if (product.stock() < requestedQuantities.get(item.getProductId())) {
+                stockAvailable = false;
+            }
+            subTotal = subTotal.add(product.price().multiply(new BigDecimal(item.getQuantity())));
+        }
+
+        OrderPricingDTO pricing = pricingEngine.price(subTotal, tier, request.getPromoCode());
+        pricing.setStockAvailable(stockAvailable);
+        return pricing;
+    }
+
+    private String validateForBatch(OrderDTO orderDTO) {
+        if (orderDTO == null) {
+            return "Order is required";
+        }
+        if (orderDTO.getClientId() == null) {
+            return "Client ID is required";
+        }
+        if (orderDTO.getItems() == null || orderDTO.getItems().isEmpty()) {
+            return "Order must contain at least one item";
+        }
+        for (OrderItemDTO item : orderDTO.getItems()) {
+            if (item.getProductId() == null) {
+                return "Product ID is required";
+            }
+            if (item.getQuantity() <= 0) {
+                return "Quantity must be positive";
+            }
+        }
+        return null;
+    }
+
+    private Map<Long, Integer> requestedQuantities(OrderDTO orderDTO) {
+        Map<Long, Integer> requestedQuantities = new TreeMap<>();
+        for (OrderItemDTO itemDTO : orderDTO.getItems()) {
+            requestedQuantities.merge(itemDTO.getProductId(), itemDTO.getQuantity(), Integer::sum);
+        }
+        return requestedQuantities;
+    }
+
+    /**
+     * Build, price and persist an order against products already locked by the caller.
+     * Shared by createOrder and the batch ingestion path so both apply the same rules.
+     */
+    private Order placeOrder(OrderDTO orderDTO, Client client, Map<Long, Integer> requestedQuantities,
+                             Map<Long, Product> products) {
         Order order = new Order();
         order.setClient(client);
         order.setDate(LocalDateTime.now());
@@ -66,12 +302,13 @@ public class OrderServiceImpl implements OrderService {
 
         // Validate Stock and Calculate Subtotal
         for (OrderItemDTO itemDTO : orderDTO.getItems()) {
-            Product product = productRepository.findById(itemDTO.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found: " + itemDTO.getProductId()));
+            Product product = products.get(itemDTO.getProductId());
+            if (product == null) {
+                throw new EntityNotFoundException("Product not found: " + itemDTO.getProductId());
+            }
 
-            if (product.getStock() < itemDTO.getQuantity()) {
+            if (product.getStock() < requestedQuantities.get(product.getId())) {
                 order.setStatus(OrderStatus.REJECTED);
-
             }
 
             OrderItem item = new OrderItem();
@@ -85,11 +322,14 @@ public class OrderServiceImpl implements OrderService {
             subTotal = subTotal.add(item.getTotalLine());
         }
 
-        // Decrement stock for each item (reserve stock immediately)
-        for (OrderItem item : items) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() - item.getQuantity());
-            // productRepository.save(product);
+        // Reserve stock immediately; the rows stay locked until commit
+        if (order.getStatus() != OrderStatus.REJECTED) {
+            requestedQuantities.forEach((productId, quantity) -> {
+                Product product = products.get(productId);
+                product.setStock(product.getStock() - quantity);
+                pricingSnapshot.refresh(product);
+            });
+            eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(requestedQuantities.keySet()));
         }
 
         order.setItems(items);
@@ -101,41 +341,23 @@ public class OrderServiceImpl implements OrderService {
             order.setTaxAmount(BigDecimal.ZERO);
             order.setTotalAmount(BigDecimal.ZERO);
             order.setRemainingAmount(BigDecimal.ZERO);
-            return orderMapper.toDTO(orderRepository.save(order));
-        }
-
-        // Calculate Discount
-        BigDecimal discountPercentage = BigDecimal.ZERO;
-
-        // Loyalty Discount
-        CustomerTier tier = client.getTier();
-        if (tier == CustomerTier.SILVER && subTotal.compareTo(new BigDecimal("500")) >= 0) {
-            discountPercentage = discountPercentage.add(new BigDecimal("0.05"));
-        } else if (tier == CustomerTier.GOLD && subTotal.compareTo(new BigDecimal("800")) >= 0) {
-            discountPercentage = discountPercentage.add(new BigDecimal("0.10"));
-        } else if (tier == CustomerTier.PLATINUM && subTotal.compareTo(new BigDecimal("1200")) >= 0) {
-            discountPercentage = discountPercentage.add(new BigDecimal("0.15"));
-        }
-
-        // Promo Code
-        if (orderDTO.getPromoCode() != null && PROMO_PATTERN.matcher(orderDTO.getPromoCode()).matches()) {
-            discountPercentage = discountPercentage.add(new BigDecimal("0.05"));
+            return orderRepository.save(order);
         }
 
-        BigDecimal discountAmount = subTotal.multiply(discountPercentage).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal amountAfterDiscount = subTotal.subtract(discountAmount);
-        BigDecimal taxAmount = amountAfterDiscount.multiply(tvaRate).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal totalAmount = amountAfterDiscount.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
+        OrderPricingDTO pricing = pricingEngine.price(subTotal, client.getTier(), orderDTO.getPromoCode());
 
-        order.setDiscountAmount(discountAmount);
-        order.setTaxAmount(taxAmount);
-        order.setTotalAmount(totalAmount);
-        order.setRemainingAmount(totalAmount);
+        order.setDiscountAmount(pricing.getDiscountAmount());
+        order.setTaxAmount(pricing.getTaxAmount());
+        order.setTotalAmount(pricing.getTotalAmount());
+        order.setRemainingAmount(pricing.getTotalAmount());
 
-        return orderMapper.toDTO(orderRepository.save(order));
+        Order savedOrder = orderRepository.save(order);
+        reservationService.reserve(savedOrder, requestedQuantities);
+        return savedOrder;
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public OrderDTO confirmOrder(Long orderId) {
         Order order = orderRepository.findById(orderId)
@@ -150,6 +372,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         // Stock already decremented in createOrder(), no need to decrement again
+        reservationService.consume(orderId);
 
         order.setStatus(OrderStatus.CONFIRMED);
         Order savedOrder = orderRepository.save(order);
@@ -161,27 +384,44 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public OrderDTO cancelOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
 
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Only PENDING orders can be canceled");
         }
 
-        // Restore stock when cancelling order
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
+        // Restore stock when cancelling order, locking the rows in the same order as createOrder
+        Map<Long, Integer> reservedQuantities = new TreeMap<>();
+        for (Object[] row : orderRepository.sumQuantitiesByProduct(orderId)) {
+            reservedQuantities.put((Long) row[0], ((Number) row[1]).intValue());
         }
+        Map<Long, Product> products = lockProducts(reservedQuantities.keySet());
+        reservedQuantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            product.setStock(product.getStock() + quantity);
+        });
+        pricingSnapshot.refresh(products.values());
+        eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(products.keySet()));
+        reservationService.release(orderId);
 
         order.setStatus(OrderStatus.CANCELED);
         return orderMapper.toDTO(orderRepository.save(order));
     }
 
+    private Map<Long, Product> lockProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return productRepository.findAllByIdForUpdate(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
     @Override
+    @RetryOnConflict
     @Transactional
     public OrderDTO rejectOrder(Long orderId) {
         Order order = orderRepository.findById(orderId)
@@ -200,28 +440,134 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderDTO> getAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable).map(orderMapper::toDTO);
+        return withItems(orderRepository.findHeaderPage(pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderDTO> getOrdersByClientId(Long clientId, Pageable pageable) {
-        return orderRepository.findByClientId(clientId, pageable).map(orderMapper::toDTO);
+        return withItems(orderRepository.findHeaderPageByClientId(clientId, pageable));
+    }
+
+    private Page<OrderDTO> withItems(Page<OrderDTO> orders) {
+        orderRepository.attachItems(orders.getContent());
+        return orders;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDTO> getOrdersAfter(String cursor, int size) {
+        Pageable limit = keysetLimit(size);
+        OrderCursor after = OrderCursor.decode(cursor);
+        List<OrderDTO> orders = after == null
+                ? orderRepository.findFirstKeysetPage(limit)
+                : orderRepository.findKeysetPageAfter(after.date(), after.id(), limit);
+        return toCursorPage(orders, size);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDTO> getOrdersByClientIdAfter(Long clientId, String cursor, int size) {
+        Pageable limit = keysetLimit(size);
+        OrderCursor after = OrderCursor.decode(cursor);
+        List<OrderDTO> orders = after == null
+                ? orderRepository.findFirstKeysetPageByClientId(clientId, limit)
+                : orderRepository.findKeysetPageByClientIdAfter(clientId, after.date(), after.id(), limit);
+        return toCursorPage(orders, size);
+    }
+
+    // One extra row tells whether there is a next page without counting
+    private static Pageable keysetLimit(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private CursorPageDTO<OrderDTO> toCursorPage(List<OrderDTO> orders, int size) {
+        boolean hasNext = orders.size() > size;
+        List<OrderDTO> page = orderRepository.attachItems(hasNext ? new ArrayList<>(orders.subList(0, size)) : orders);
+        return CursorPageDTO.<OrderDTO>builder()
+                .content(page)
+                .size(page.size())
+                .nextCursor(hasNext ? OrderCursor.encode(page.get(page.size() - 1)) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Position after the last order of a page, sent to clients as an opaque
+     * URL-safe base64 token.
+     */
+    private record OrderCursor(LocalDateTime date, Long id) {
+
+        static String encode(OrderDTO last) {
+            String position = last.getDate() + "|" + last.getId();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static OrderCursor decode(String cursor) {
+            if (cursor == null || cursor.isEmpty()) {
+                return null;
+            }
+            try {
+                String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = position.indexOf('|');
+                return new OrderCursor(LocalDateTime.parse(position.substring(0, separator)),
+                        Long.valueOf(position.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new ValidationException("Invalid cursor");
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long id) {
-        return orderRepository.findById(id).map(orderMapper::toDTO)
+        return orderRepository.findDetailedById(id).map(orderMapper::toDTO)
+                .orElseThrow(() -> new EntityNotFoundException("Order not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderVersionRow getOrderVersion(Long id) {
+        return orderRepository.findVersionById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
     }
 
     @Override
-    public Map<PaymentType, List<OrderDTO>> getOrdersGroupedByPaymentType() {
-        return paymentRepository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        Payment::getType,
-                        Collectors.mapping(
-                                payment -> orderMapper.toDTO(payment.getOrder()),
-                                Collectors.toList())));
+    @Transactional(readOnly = true)
+    public Map<PaymentType, PaymentTypeReportDTO> getOrdersGroupedByPaymentType(LocalDateTime from, LocalDateTime to,
+                                                                                Pageable pageable) {
+        LocalDateTime lower = from != null ? from : REPORT_MIN_DATE;
+        LocalDateTime upper = to != null ? to : REPORT_MAX_DATE;
+        if (!lower.isBefore(upper)) {
+            throw new ValidationException("'from' must be before 'to'");
+        }
+
+        // Newest first unless asked otherwise, always ending on the id so LIMIT/OFFSET pages are stable
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(Sort.Direction.DESC, "date");
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by(Sort.Direction.DESC, "id"));
+        }
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        Map<PaymentType, PaymentTypeReportDTO> report = new EnumMap<>(PaymentType.class);
+        List<OrderDTO> pageContent = new ArrayList<>();
+        for (PaymentTypeTotalsRow totals : paymentRepository.sumByType(lower, upper)) {
+            List<OrderDTO> orders = paymentRepository.findOrderHeadersByPaymentType(totals.type(), lower, upper, page);
+            pageContent.addAll(orders);
+            report.put(totals.type(), PaymentTypeReportDTO.builder()
+                    .type(totals.type())
+                    .paymentCount(totals.paymentCount())
+                    .totalAmount(totals.totalAmount())
+                    .orderCount(totals.orderCount())
+                    .orders(new PageImpl<>(orders, page, totals.orderCount()))
+                    .build());
+        }
+        // Lines of every page in one query; an order paid with several types appears in several pages
+        orderRepository.attachItems(pageContent);
+        return report;
     }
 }
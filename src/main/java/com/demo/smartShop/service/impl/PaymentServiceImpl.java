@@ -1,5 +1,6 @@
 package com.demo.smartShop.service.impl;
 
+import com.demo.smartShop.concurrency.RetryOnConflict;
 import com.demo.smartShop.dto.response.PaymentDTO;
 import com.demo.smartShop.entity.Order;
 import com.demo.smartShop.entity.Payment;
@@ -18,7 +19,6 @@ import javax.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,9 +29,11 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentMapper paymentMapper;
 
     @Override
+    @RetryOnConflict
     @Transactional
     public PaymentDTO addPayment(PaymentDTO paymentDTO) {
-        Order order = orderRepository.findById(paymentDTO.getOrderId())
+        // Lock the order so the reservation sweep cannot cancel it while it is being paid
+        Order order = orderRepository.findByIdForUpdate(paymentDTO.getOrderId())
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
 
         if (order.getStatus() != OrderStatus.PENDING) {
@@ -87,6 +89,7 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public PaymentDTO validatePayment(Long paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
@@ -103,13 +106,13 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PaymentDTO> getPaymentsByOrder(Long orderId) {
-        return paymentRepository.findByOrderId(orderId).stream()
-                .map(paymentMapper::toDTO)
-                .collect(Collectors.toList());
+        return paymentRepository.findDTOsByOrderId(orderId);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public PaymentDTO cancelPayment(Long paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
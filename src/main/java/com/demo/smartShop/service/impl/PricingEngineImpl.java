@@ -0,0 +1,144 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderPricingDTO;
+import com.demo.smartShop.entity.enums.CustomerTier;
+import com.demo.smartShop.service.PricingEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Prices orders in scaled long cents.
+ *
+ * Tier thresholds and rates are looked up in tables indexed by tier ordinal, and
+ * the TVA rate is kept as an unscaled long and a power of ten. Amounts that do not
+ * fit (more than 2 decimals, negative, or overflowing a long) go through the
+ * BigDecimal path, which gives the same results.
+ */
+@Component
+public class PricingEngineImpl implements PricingEngine {
+
+    private static final String PROMO_PREFIX = "PROMO-";
+    private static final int PROMO_LENGTH = PROMO_PREFIX.length() + 4;
+    private static final long PROMO_PERCENT = 5;
+
+    // Indexed by CustomerTier.ordinal(); BASIC never gets a loyalty discount
+    private static final long[] TIER_THRESHOLD_CENTS = new long[CustomerTier.values().length];
+    private static final long[] TIER_PERCENT = new long[CustomerTier.values().length];
+
+    static {
+        TIER_THRESHOLD_CENTS[CustomerTier.BASIC.ordinal()] = Long.MAX_VALUE;
+        TIER_THRESHOLD_CENTS[CustomerTier.SILVER.ordinal()] = 500_00;
+        TIER_THRESHOLD_CENTS[CustomerTier.GOLD.ordinal()] = 800_00;
+        TIER_THRESHOLD_CENTS[CustomerTier.PLATINUM.ordinal()] = 1200_00;
+        TIER_PERCENT[CustomerTier.SILVER.ordinal()] = 5;
+        TIER_PERCENT[CustomerTier.GOLD.ordinal()] = 10;
+        TIER_PERCENT[CustomerTier.PLATINUM.ordinal()] = 15;
+    }
+
+    private static final BigDecimal[] TIER_THRESHOLDS = new BigDecimal[TIER_THRESHOLD_CENTS.length];
+
+    static {
+        for (int i = 0; i < TIER_THRESHOLDS.length; i++) {
+            TIER_THRESHOLDS[i] = TIER_PERCENT[i] == 0 ? null : BigDecimal.valueOf(TIER_THRESHOLD_CENTS[i], 2);
+        }
+    }
+
+    private final BigDecimal tvaRate;
+    private final long tvaUnscaled;
+    private final long tvaDivisor;
+    private final boolean tvaFitsLong;
+
+    public PricingEngineImpl(@Value("${smartshop.tva-rate:0.20}") BigDecimal tvaRate) {
+        this.tvaRate = tvaRate;
+        BigDecimal normalized = tvaRate.scale() < 0 ? tvaRate.setScale(0) : tvaRate;
+        BigInteger unscaled = normalized.unscaledValue();
+        this.tvaFitsLong = normalized.signum() >= 0 && normalized.scale() <= 18 && unscaled.bitLength() < 63;
+        this.tvaUnscaled = tvaFitsLong ? unscaled.longValue() : 0;
+        this.tvaDivisor = tvaFitsLong ? pow10(normalized.scale()) : 1;
+    }
+
+    @Override
+    public OrderPricingDTO price(BigDecimal subTotal, CustomerTier tier, String promoCode) {
+        if (tvaFitsLong && subTotal.signum() >= 0 && subTotal.scale() <= 2) {
+            try {
+                return priceCents(subTotal.movePointRight(2).longValueExact(), tier, promoCode);
+            } catch (ArithmeticException overflow) {
+                // Fall through to the BigDecimal path
+            }
+        }
+        return priceExact(subTotal, tier, promoCode);
+    }
+
+    @Override
+    public boolean isPromoCodeFormatValid(String promoCode) {
+        if (promoCode == null || promoCode.length() != PROMO_LENGTH || !promoCode.startsWith(PROMO_PREFIX)) {
+            return false;
+        }
+        for (int i = PROMO_PREFIX.length(); i < PROMO_LENGTH; i++) {
+            char c = promoCode.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private OrderPricingDTO priceCents(long subTotal, CustomerTier tier, String promoCode) {
+        long loyaltyPercent = subTotal >= threshold(tier) ? TIER_PERCENT[tier.ordinal()] : 0;
+        long promoPercent = isPromoCodeFormatValid(promoCode) ? PROMO_PERCENT : 0;
+
+        long discount = divideHalfUp(Math.multiplyExact(subTotal, loyaltyPercent + promoPercent), 100);
+        long loyaltyDiscount = divideHalfUp(Math.multiplyExact(subTotal, loyaltyPercent), 100);
+        long afterDiscount = subTotal - discount;
+        long tax = divideHalfUp(Math.multiplyExact(afterDiscount, tvaUnscaled), tvaDivisor);
+        long total = Math.addExact(afterDiscount, tax);
+
+        return new OrderPricingDTO(
+                BigDecimal.valueOf(subTotal, 2),
+                BigDecimal.valueOf(loyaltyDiscount, 2),
+                BigDecimal.valueOf(discount - loyaltyDiscount, 2),
+                BigDecimal.valueOf(discount, 2),
+                BigDecimal.valueOf(tax, 2),
+                BigDecimal.valueOf(total, 2),
+                null);
+    }
+
+    private OrderPricingDTO priceExact(BigDecimal subTotal, CustomerTier tier, String promoCode) {
+        BigDecimal threshold = tier == null ? null : TIER_THRESHOLDS[tier.ordinal()];
+        long loyaltyPercent = threshold != null && subTotal.compareTo(threshold) >= 0 ? TIER_PERCENT[tier.ordinal()] : 0;
+        long promoPercent = isPromoCodeFormatValid(promoCode) ? PROMO_PERCENT : 0;
+
+        BigDecimal discountAmount = subTotal.multiply(BigDecimal.valueOf(loyaltyPercent + promoPercent, 2))
+                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal loyaltyDiscountAmount = subTotal.multiply(BigDecimal.valueOf(loyaltyPercent, 2))
+                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal amountAfterDiscount = subTotal.subtract(discountAmount);
+        BigDecimal taxAmount = amountAfterDiscount.multiply(tvaRate).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal totalAmount = amountAfterDiscount.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
+
+        return new OrderPricingDTO(subTotal, loyaltyDiscountAmount, discountAmount.subtract(loyaltyDiscountAmount),
+                discountAmount, taxAmount, totalAmount, null);
+    }
+
+    private static long threshold(CustomerTier tier) {
+        return tier == null ? Long.MAX_VALUE : TIER_THRESHOLD_CENTS[tier.ordinal()];
+    }
+
+    // HALF_UP division of a non-negative value
+    private static long divideHalfUp(long value, long divisor) {
+        long quotient = value / divisor;
+        return value % divisor >= divisor - value % divisor ? quotient + 1 : quotient;
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
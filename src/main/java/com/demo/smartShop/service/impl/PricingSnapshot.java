@@ -0,0 +1,130 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.enums.CustomerTier;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory copy of product prices/stock and client tiers used to quote carts.
+ *
+ * Entries are refreshed after commit by the services that change them, and
+ * reloaded from the database when missing or older than the configured TTL.
+ * Stock is advisory: the authoritative check stays in createOrder.
+ */
+@Component
+@RequiredArgsConstructor
+public class PricingSnapshot {
+
+    private final ProductRepository productRepository;
+    private final ClientRepository clientRepository;
+
+    @Value("${smartshop.quote.snapshot-ttl:30s}")
+    private Duration ttl;
+
+    private final ConcurrentMap<Long, ProductEntry> products = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, TierEntry> tiers = new ConcurrentHashMap<>();
+
+    public record ProductEntry(BigDecimal price, int stock, long loadedAt) {
+    }
+
+    private record TierEntry(CustomerTier tier, long loadedAt) {
+    }
+
+    /**
+     * @return the entries of the requested products; unknown ids are absent from the map
+     */
+    public Map<Long, ProductEntry> products(Collection<Long> productIds) {
+        long now = System.nanoTime();
+        Map<Long, ProductEntry> result = new HashMap<>();
+        List<Long> stale = new ArrayList<>();
+        for (Long productId : productIds) {
+            ProductEntry entry = products.get(productId);
+            if (entry != null && isFresh(entry.loadedAt(), now)) {
+                result.put(productId, entry);
+            } else {
+                stale.add(productId);
+            }
+        }
+        if (!stale.isEmpty()) {
+            for (Product product : productRepository.findAllById(stale)) {
+                ProductEntry entry = new ProductEntry(product.getPrice(), product.getStock(), now);
+                products.put(product.getId(), entry);
+                result.put(product.getId(), entry);
+            }
+        }
+        return result;
+    }
+
+    public CustomerTier tierOf(Long clientId) {
+        long now = System.nanoTime();
+        TierEntry entry = tiers.get(clientId);
+        if (entry != null && isFresh(entry.loadedAt(), now)) {
+            return entry.tier();
+        }
+        Client client = clientRepository.findById(clientId)
+                .orElseThrow(() -> new EntityNotFoundException("Client not found"));
+        tiers.put(clientId, new TierEntry(client.getTier(), now));
+        return client.getTier();
+    }
+
+    public void refresh(Product product) {
+        Long productId = product.getId();
+        BigDecimal price = product.getPrice();
+        int stock = product.getStock();
+        afterCommit(() -> products.put(productId, new ProductEntry(price, stock, System.nanoTime())));
+    }
+
+    public void refresh(Collection<Product> changed) {
+        changed.forEach(this::refresh);
+    }
+
+    public void refresh(Client client) {
+        Long clientId = client.getId();
+        CustomerTier tier = client.getTier();
+        afterCommit(() -> tiers.put(clientId, new TierEntry(tier, System.nanoTime())));
+    }
+
+    public void evictClient(Long clientId) {
+        afterCommit(() -> tiers.remove(clientId));
+    }
+
+    public void evictClients(Collection<Long> clientIds) {
+        afterCommit(() -> clientIds.forEach(tiers::remove));
+    }
+
+    private boolean isFresh(long loadedAt, long now) {
+        return now - loadedAt < ttl.toNanos();
+    }
+
+    // Never publish values of a transaction that may still roll back
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
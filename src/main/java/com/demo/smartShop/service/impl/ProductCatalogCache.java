@@ -0,0 +1,95 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.ProductDTO;
+import com.demo.smartShop.event.ProductsChangedEvent;
+import com.demo.smartShop.service.ProductService.CatalogPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory copy of the public catalog: single products by id with their ETag,
+ * and listing pages with the catalog ETag read along with them.
+ *
+ * Entries are evicted after commit of any transaction publishing a {@link ProductsChangedEvent}:
+ * the changed products, the pages showing them and the pages whose order they may affect.
+ * A page loaded concurrently with a change can still be stored with the old values; it keeps
+ * the ETag read with it, so clients revalidating it get the same old content, and the TTL
+ * bounds how long such an entry is served.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${smartshop.catalog.cache.ttl:30s}")
+    private Duration ttl;
+
+    @Value("${smartshop.catalog.cache.max-products:10000}")
+    private long maxProducts;
+
+    // Products held across all cached pages
+    @Value("${smartshop.catalog.cache.max-page-products:10000}")
+    private long maxPageProducts;
+
+    private Cache<Long, CachedProduct> products;
+    private Cache<Pageable, CatalogPage> pages;
+
+    public record CachedProduct(ProductDTO product, String eTag) {
+    }
+
+    @PostConstruct
+    void init() {
+        products = Caffeine.newBuilder()
+                .maximumSize(maxProducts)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        pages = Caffeine.newBuilder()
+                .maximumWeight(maxPageProducts)
+                .<Pageable, CatalogPage>weigher((pageable, page) -> Math.max(1, page.page().getNumberOfElements()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "catalog.products");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "catalog.pages");
+    }
+
+    public CachedProduct product(Long id, Function<Long, CachedProduct> loader) {
+        return products.get(id, loader);
+    }
+
+    public CatalogPage page(Pageable pageable, Supplier<CatalogPage> loader) {
+        return pages.get(pageable, key -> loader.get());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        products.invalidateAll(event.productIds());
+        if (event.change() == ProductsChangedEvent.Change.CREATED) {
+            pages.invalidateAll();
+            return;
+        }
+        pages.asMap().entrySet().removeIf(entry -> sortedByChangeableField(entry.getKey().getSort())
+                || entry.getValue().page().getContent().stream().anyMatch(p -> event.productIds().contains(p.getId())));
+    }
+
+    // Stock, price, name or deletion changes can move a product across such pages
+    private static boolean sortedByChangeableField(Sort sort) {
+        return sort.stream().anyMatch(order -> !order.getProperty().equals("id"));
+    }
+}
@@ -0,0 +1,461 @@
+package com.demo.smartShop.service.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product names and descriptions.
+ *
+ * Terms are lower-cased and accent-folded; each maps to a postings list sorted by
+ * product id. A query matches the products containing every query token, as a whole
+ * word or as a word prefix, ranked by tf-idf with name matches weighing more than
+ * description matches. Writes take an exclusive lock and are expected to be rare
+ * compared to searches. Deleted products keep their version so that an older row
+ * can never bring them back.
+ *
+ * Searches run under the read lock, which writers wait for, so their work is bounded
+ * whatever the query: only the first MAX_TOKENS tokens are used, and a prefix matching
+ * many words is expanded to its most frequent ones within MAX_PREFIX_POSTINGS. The
+ * total of such a search is extrapolated from what was merged.
+ */
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    // Score factor of a word that only starts with the query token
+    private static final float PREFIX_FACTOR = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    // Per query token: words a prefix expands to, and postings merged for them
+    private static final int MAX_EXPANSIONS = 32;
+    private static final int MAX_PREFIX_POSTINGS = 30_000;
+    private static final int MAX_TOKENS = 6;
+    // Probing few candidates against every word of a truncated prefix keeps it exact
+    private static final long MAX_PROBE_STEPS = 1_000_000;
+    // Probing a candidate costs about this many postings steps (binary search)
+    private static final int PROBE_COST = 20;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "en", "et", "la", "le",
+            "les", "ou", "par", "pour", "sans", "sur", "un", "une");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private int liveDocuments;
+
+    private record Document(long version, Postings[] postings, boolean live) {
+    }
+
+    private record Expansion(Postings postings, float factor) {
+    }
+
+    /**
+     * @param expansions  words merged for one query token
+     * @param exact       the token as a whole word, if indexed
+     * @param words       every word the token is a prefix of, merged or not
+     * @param postings    postings of the merged words
+     * @param allPostings postings of every word the token matches
+     */
+    private record Match(List<Expansion> expansions, Postings exact, Collection<Postings> words,
+                         long postings, long allPostings) {
+
+        private boolean truncated() {
+            return postings < allPostings;
+        }
+    }
+
+    /**
+     * @param productIds one page of matching products, best first
+     * @param total      number of matching products, estimated when a short prefix
+     *                   matched more words than were merged
+     */
+    public record Hits(List<Long> productIds, long total) {
+    }
+
+    /**
+     * Index a product, replacing what was indexed for it. Ignored when the same or a
+     * newer version is already indexed.
+     */
+    public void put(long productId, long version, String nom, String description, boolean deleted) {
+        Map<String, Float> weights = deleted ? Map.of() : weigh(nom, description);
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.get(productId);
+            if (previous != null && previous.version() >= version) {
+                return;
+            }
+            unindex(productId, previous);
+            Postings[] postings = new Postings[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Float> weight : weights.entrySet()) {
+                postings[i] = terms.computeIfAbsent(weight.getKey(), Postings::new);
+                postings[i++].put(productId, weight.getValue());
+            }
+            documents.put(productId, new Document(version, postings, !deleted));
+            if (!deleted) {
+                liveDocuments++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            unindex(productId, documents.remove(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Hits search(String query, int offset, int limit) {
+        List<String> tokens = analyze(query).stream().distinct().limit(MAX_TOKENS).toList();
+        if (tokens.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            for (String token : tokens) {
+                Match match = expand(token);
+                if (match.expansions().isEmpty()) {
+                    return new Hits(List.of(), 0);
+                }
+                matches.add(match);
+            }
+            // Start from the most selective token so the candidate set only shrinks
+            matches.sort(Comparator.comparingLong(Match::postings));
+
+            Match first = matches.get(0);
+            Scored candidates = union(first.expansions());
+            // Share of the matches a truncated token left out, assumed independent of the others
+            double scale = first.truncated() ? (double) first.allPostings() / first.postings() : 1;
+            for (int i = 1; i < matches.size() && candidates.size > 0; i++) {
+                Match match = matches.get(i);
+                if (match.truncated()
+                        && (long) candidates.size * (match.words().size() + 1) * PROBE_COST <= MAX_PROBE_STEPS) {
+                    candidates = candidates.probe(all(match));
+                    continue;
+                }
+                List<Expansion> expansions = match.expansions();
+                candidates = (long) candidates.size * expansions.size() * PROBE_COST < match.postings()
+                        ? candidates.probe(expansions)
+                        : candidates.intersect(union(expansions));
+                if (match.truncated()) {
+                    scale *= (double) match.allPostings() / match.postings();
+                }
+            }
+            long total = Math.min(Math.round(candidates.size * scale), liveDocuments);
+            return candidates.top(offset, limit, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-case, accent-folded words of a text, without French stop words and single letters.
+     */
+    static List<String> analyze(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+                .replaceAll("")
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (token.isEmpty() || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            if (token.length() > 1 || Character.isDigit(token.charAt(0))) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Per term: name occurrences weigh NAME_WEIGHT, description ones 1, both damped by field length
+    private static Map<String, Float> weigh(String nom, String description) {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        addWeights(weights, analyze(nom), NAME_WEIGHT);
+        addWeights(weights, analyze(description), 1f);
+        return weights;
+    }
+
+    private static void addWeights(Map<String, Float> weights, List<String> tokens, float fieldWeight) {
+        float weight = fieldWeight / (float) Math.sqrt(tokens.size());
+        for (String token : tokens) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void unindex(long productId, Document document) {
+        if (document == null) {
+            return;
+        }
+        for (Postings postings : document.postings()) {
+            postings.remove(productId);
+            if (postings.size == 0) {
+                terms.remove(postings.term);
+            }
+        }
+        if (document.live()) {
+            liveDocuments--;
+        }
+    }
+
+    /**
+     * The word itself, always, then the most frequent words it is a prefix of, as long as
+     * they fit in MAX_EXPANSIONS and MAX_PREFIX_POSTINGS: they hold the most matches. The
+     * other words are only kept for probing.
+     */
+    private Match expand(String token) {
+        List<Expansion> expansions = new ArrayList<>();
+        long postingsCount = 0;
+        Postings exact = terms.get(token);
+        if (exact != null) {
+            expansions.add(new Expansion(exact, idf(exact)));
+            postingsCount = exact.size;
+        }
+        if (token.length() < MIN_PREFIX_LENGTH) {
+            return new Match(expansions, exact, List.of(), postingsCount, postingsCount);
+        }
+
+        Collection<Postings> words = terms.subMap(token, false, token + Character.MAX_VALUE, false).values();
+        long allPostings = postingsCount;
+        PriorityQueue<Postings> frequent = new PriorityQueue<>(Comparator.comparingInt(postings -> postings.size));
+        for (Postings postings : words) {
+            allPostings += postings.size;
+            if (frequent.size() == MAX_EXPANSIONS && postings.size <= frequent.peek().size) {
+                continue;
+            }
+            frequent.add(postings);
+            if (frequent.size() > MAX_EXPANSIONS) {
+                frequent.poll();
+            }
+        }
+        Postings[] byFrequency = frequent.toArray(new Postings[0]);
+        Arrays.sort(byFrequency, Comparator.comparingInt((Postings postings) -> postings.size).reversed());
+        long prefixPostings = 0;
+        for (Postings postings : byFrequency) {
+            // The most frequent word is kept even alone over the budget: its merge is a plain copy
+            if (prefixPostings > 0 && prefixPostings + postings.size > MAX_PREFIX_POSTINGS) {
+                continue;
+            }
+            expansions.add(new Expansion(postings, PREFIX_FACTOR * idf(postings)));
+            prefixPostings += postings.size;
+        }
+        return new Match(expansions, exact, words, postingsCount + prefixPostings, allPostings);
+    }
+
+    // Every expansion of a truncated token, merged words included
+    private List<Expansion> all(Match match) {
+        List<Expansion> all = new ArrayList<>(match.words().size() + 1);
+        if (match.exact() != null) {
+            all.add(new Expansion(match.exact(), idf(match.exact())));
+        }
+        for (Postings postings : match.words()) {
+            all.add(new Expansion(postings, PREFIX_FACTOR * idf(postings)));
+        }
+        return all;
+    }
+
+    private float idf(Postings postings) {
+        return (float) Math.log(1 + (double) liveDocuments / postings.size);
+    }
+
+    /**
+     * Products matching any expansion of one token, scored by their best expansion.
+     * Merged pairwise as a balanced tree: O(postings * log(words)) rather than one merge
+     * into a growing result per word.
+     */
+    private static Scored union(List<Expansion> expansions) {
+        return union(expansions, 0, expansions.size());
+    }
+
+    private static Scored union(List<Expansion> expansions, int from, int to) {
+        if (to - from == 0) {
+            return new Scored(new long[0], new float[0], 0);
+        }
+        if (to - from == 1) {
+            Expansion expansion = expansions.get(from);
+            Postings postings = expansion.postings();
+            float[] scores = new float[postings.size];
+            for (int i = 0; i < postings.size; i++) {
+                scores[i] = postings.weights[i] * expansion.factor();
+            }
+            return new Scored(Arrays.copyOf(postings.ids, postings.size), scores, postings.size);
+        }
+        int middle = (from + to) >>> 1;
+        return union(expansions, from, middle).mergeMax(union(expansions, middle, to));
+    }
+
+    /**
+     * Product ids sorted ascending, with their weights; one per indexed term.
+     */
+    private static final class Postings {
+        private final String term;
+        private long[] ids = new long[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void put(long id, float weight) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                weights[index] = weight;
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            ids[index] = id;
+            weights[index] = weight;
+            size++;
+        }
+
+        private void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+            size--;
+        }
+
+        private float get(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            return index >= 0 ? weights[index] : 0f;
+        }
+    }
+
+    /**
+     * Candidate product ids sorted ascending, with their score so far.
+     */
+    private record Scored(long[] ids, float[] scores, int size) {
+
+        private Scored mergeMax(Scored other) {
+            long[] mergedIds = new long[size + other.size];
+            float[] mergedScores = new float[mergedIds.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    mergedIds[n] = ids[i];
+                    mergedScores[n++] = scores[i++];
+                } else if (other.ids[j] < ids[i]) {
+                    mergedIds[n] = other.ids[j];
+                    mergedScores[n++] = other.scores[j++];
+                } else {
+                    mergedIds[n] = ids[i];
+                    mergedScores[n++] = Math.max(scores[i++], other.scores[j++]);
+                }
+            }
+            System.arraycopy(ids, i, mergedIds, n, size - i);
+            System.arraycopy(scores, i, mergedScores, n, size - i);
+            n += size - i;
+            System.arraycopy(other.ids, j, mergedIds, n, other.size - j);
+            System.arraycopy(other.scores, j, mergedScores, n, other.size - j);
+            n += other.size - j;
+            return new Scored(mergedIds, mergedScores, n);
+        }
+
+        private Scored intersect(Scored other) {
+            long[] keptIds = new long[Math.min(size, other.size)];
+            float[] keptScores = new float[keptIds.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (other.ids[j] < ids[i]) {
+                    j++;
+                } else {
+                    keptIds[n] = ids[i];
+                    keptScores[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new Scored(keptIds, keptScores, n);
+        }
+
+        private Scored probe(List<Expansion> expansions) {
+            long[] keptIds = new long[size];
+            float[] keptScores = new float[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                float best = 0f;
+                for (Expansion expansion : expansions) {
+                    best = Math.max(best, expansion.postings().get(ids[i]) * expansion.factor());
+                }
+                if (best > 0f) {
+                    keptIds[n] = ids[i];
+                    keptScores[n++] = scores[i] + best;
+                }
+            }
+            return new Scored(keptIds, keptScores, n);
+        }
+
+        // Best score first, then lowest id; only offset + limit entries are ever ordered
+        private Hits top(int offset, int limit, long total) {
+            int wanted = (int) Math.min((long) offset + limit, size);
+            if (offset >= wanted) {
+                return new Hits(List.of(), total);
+            }
+            Comparator<Integer> best = (a, b) -> scores[a] != scores[b]
+                    ? Float.compare(scores[b], scores[a])
+                    : Long.compare(ids[a], ids[b]);
+            PriorityQueue<Integer> heap = new PriorityQueue<>(wanted + 1, best.reversed());
+            for (int i = 0; i < size; i++) {
+                // Most candidates lose to the worst one kept: one comparison instead of a heap insertion
+                if (heap.size() == wanted && best.compare(i, heap.peek()) >= 0) {
+                    continue;
+                }
+                heap.add(i);
+                if (heap.size() > wanted) {
+                    heap.poll();
+                }
+            }
+            Long[] page = new Long[wanted - offset];
+            while (heap.size() > offset) {
+                page[heap.size() - offset - 1] = ids[heap.poll()];
+            }
+            return new Hits(Arrays.asList(page), total);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.event.ProductsChangedEvent;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.repository.projection.ProductTextRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the {@link ProductSearchIndex} in step with the products table: loaded in
+ * keyset chunks once the application is ready, then updated after commit of every
+ * catalog change. Stock-only changes are ignored since they do not touch indexed text.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndexer {
+
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${smartshop.search.load-chunk-size:10000}")
+    private int chunkSize;
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        // Also used from after-commit callbacks, where the finished transaction is still bound
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        long afterId = 0;
+        List<ProductTextRow> rows;
+        do {
+            long from = afterId;
+            rows = readOnlyTransaction.execute(status ->
+                    productRepository.findTextRowsAfter(from, PageRequest.of(0, chunkSize)));
+            rows.forEach(this::put);
+            if (!rows.isEmpty()) {
+                afterId = rows.get(rows.size() - 1).id();
+            }
+        } while (rows.size() == chunkSize);
+        log.info("Indexed {} product(s) for search in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (event.change() == ProductsChangedEvent.Change.STOCK) {
+            return;
+        }
+        List<ProductTextRow> rows = readOnlyTransaction.execute(status ->
+                productRepository.findTextRowsByIdIn(event.productIds()));
+        Set<Long> missing = new HashSet<>(event.productIds());
+        for (ProductTextRow row : rows) {
+            put(row);
+            missing.remove(row.id());
+        }
+        missing.forEach(index::remove);
+    }
+
+    public ProductSearchIndex.Hits search(String query, int offset, int limit) {
+        return index.search(query, offset, limit);
+    }
+
+    private void put(ProductTextRow row) {
+        long version = row.version() != null ? row.version() : 0;
+        index.put(row.id(), version, row.nom(), row.description(), row.deleted());
+    }
+}
@@ -1,35 +1,100 @@
 package com.demo.smartShop.service.impl;
 
+import com.demo.smartShop.concurrency.RetryOnConflict;
 import com.demo.smartShop.dto.response.ProductDTO;
 import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.event.ProductsChangedEvent;
+import com.demo.smartShop.exception.ValidationException;
 import com.demo.smartShop.mapper.ProductMapper;
 import com.demo.smartShop.repository.ProductRepository;
 import com.demo.smartShop.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_QUERY_LENGTH = 200;
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final PricingSnapshot pricingSnapshot;
+    private final ProductCatalogCache catalogCache;
+    private final ProductSearchIndexer searchIndexer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
 
+    @PostConstruct
+    void initTransactionTemplate() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Cache lookups stay outside any transaction: a hit never touches a connection
     @Override
     public Page<ProductDTO> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable).map(productMapper::toDTO);
+        return getCatalogPage(pageable).page();
+    }
+
+    @Override
+    public CatalogPage getCatalogPage(Pageable pageable) {
+        // Version read first: a change committing in between makes the ETag older than the
+        // page, never newer, so stale content is never served under a current ETag
+        return catalogCache.page(pageable, () -> readOnlyTransaction.execute(status -> {
+            String eTag = productRepository.findCatalogVersion().eTag();
+            return new CatalogPage(productRepository.findAllProjected(pageable), eTag);
+        }));
     }
 
     @Override
     public ProductDTO getProductById(Long id) {
-        return productRepository.findById(id)
-                .map(productMapper::toDTO)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+        return cachedProduct(id).product();
+    }
+
+    @Override
+    public Page<ProductDTO> searchProducts(String query, Pageable pageable) {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException("Search query must be between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        ProductSearchIndex.Hits hits = searchIndexer.search(query,
+                (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE), pageable.getPageSize());
+        if (hits.productIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+
+        // The index only holds ids: price and stock come from the database, in rank order
+        Map<Long, ProductDTO> products = readOnlyTransaction.execute(status ->
+                productRepository.findProjectedByIdIn(hits.productIds())).stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+        List<ProductDTO> content = hits.productIds().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
+    @Override
+    public String getProductETag(Long id) {
+        return cachedProduct(id).eTag();
     }
 
     @Override
@@ -37,10 +102,14 @@ public class ProductServiceImpl implements ProductService {
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = productMapper.toEntity(productDTO);
         product.setDeleted(false); // Ensure not deleted on creation
-        return productMapper.toDTO(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        pricingSnapshot.refresh(saved);
+        eventPublisher.publishEvent(ProductsChangedEvent.created(saved.getId()));
+        return productMapper.toDTO(saved);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
         Product product = productRepository.findById(id)
@@ -50,15 +119,27 @@ public class ProductServiceImpl implements ProductService {
         product.setPrice(productDTO.getPrice());
         product.setStock(productDTO.getStock());
 
-        return productMapper.toDTO(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        pricingSnapshot.refresh(saved);
+        eventPublisher.publishEvent(ProductsChangedEvent.updated(Set.of(id)));
+        return productMapper.toDTO(saved);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public ProductDTO deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
         product.setDeleted(true);
+        eventPublisher.publishEvent(ProductsChangedEvent.updated(Set.of(id)));
         return productMapper.toDTO(productRepository.save(product));
     }
+
+    private ProductCatalogCache.CachedProduct cachedProduct(Long id) {
+        return catalogCache.product(id, key -> productRepository.findById(key)
+                .map(product -> new ProductCatalogCache.CachedProduct(
+                        productMapper.toDTO(product), String.valueOf(product.getVersion())))
+                .orElseThrow(() -> new EntityNotFoundException("Product not found")));
+    }
 }
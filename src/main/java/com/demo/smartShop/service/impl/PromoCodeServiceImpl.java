@@ -1,5 +1,6 @@
 package com.demo.smartShop.service.impl;
 
+import com.demo.smartShop.concurrency.RetryOnConflict;
 import com.demo.smartShop.dto.request.CreatePromoCodeRequest;
 import com.demo.smartShop.dto.response.PromoCodeDTO;
 import com.demo.smartShop.entity.PromoCode;
@@ -63,6 +64,7 @@ public class PromoCodeServiceImpl implements PromoCodeService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public void incrementUsage(String code) {
         PromoCode promoCode = promoCodeRepository.findByCode(code)
@@ -79,6 +81,7 @@ public class PromoCodeServiceImpl implements PromoCodeService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public PromoCodeDTO deactivatePromoCode(String code) {
         PromoCode promoCode = promoCodeRepository.findByCode(code)
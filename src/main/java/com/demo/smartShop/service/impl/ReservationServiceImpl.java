@@ -0,0 +1,190 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.concurrency.ConflictRetrier;
+import com.demo.smartShop.entity.Order;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.StockReservation;
+import com.demo.smartShop.entity.enums.OrderStatus;
+import com.demo.smartShop.entity.enums.ReservationStatus;
+import com.demo.smartShop.event.ProductsChangedEvent;
+import com.demo.smartShop.repository.OrderRepository;
+import com.demo.smartShop.repository.PaymentRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.repository.StockReservationRepository;
+import com.demo.smartShop.service.ReservationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final PricingSnapshot pricingSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConflictRetrier conflictRetrier;
+
+    @Value("${smartshop.reservation.ttl:30m}")
+    private Duration ttl;
+
+    @Value("${smartshop.reservation.batch-size:100}")
+    private int batchSize;
+
+    @Value("${smartshop.reservation.max-batches-per-sweep:50}")
+    private int maxBatchesPerSweep;
+
+    private final AtomicLong activeReservations = new AtomicLong();
+    private MultiGauge reservedUnits;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("smartshop.reservations.active", activeReservations, AtomicLong::get)
+                .description("Stock reservation lines currently held by PENDING orders")
+                .register(meterRegistry);
+        reservedUnits = MultiGauge.builder("smartshop.reservations.reserved.units")
+                .description("Units currently reserved per product")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void reserve(Order order, Map<Long, Integer> quantities) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        List<StockReservation> reservations = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> reservations.add(StockReservation.builder()
+                .order(order)
+                .product(productRepository.getReferenceById(productId))
+                .quantity(quantity)
+                .expiresAt(expiresAt)
+                .build()));
+        reservationRepository.saveAll(reservations);
+    }
+
+    @Override
+    @Transactional
+    public void consume(Long orderId) {
+        reservationRepository.updateStatusByOrderIds(List.of(orderId),
+                ReservationStatus.ACTIVE, ReservationStatus.CONSUMED);
+    }
+
+    @Override
+    @Transactional
+    public void release(Long orderId) {
+        reservationRepository.updateStatusByOrderIds(List.of(orderId),
+                ReservationStatus.ACTIVE, ReservationStatus.RELEASED);
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.reservation.sweep-interval-ms:60000}",
+            initialDelayString = "${smartshop.reservation.sweep-interval-ms:60000}")
+    public void sweepExpiredReservations() {
+        int released = releaseExpiredReservations();
+        if (released > 0) {
+            log.info("Released stock of {} expired unpaid order(s)", released);
+        }
+        refreshMetrics();
+    }
+
+    @Override
+    public int releaseExpiredReservations() {
+        int released = 0;
+        for (int batch = 0; batch < maxBatchesPerSweep; batch++) {
+            int[] result = conflictRetrier.execute("ReservationService.releaseBatch",
+                    () -> transactionTemplate.execute(status -> releaseBatch(LocalDateTime.now())));
+            released += result[1];
+            if (result[0] < batchSize) {
+                break;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Release one batch of expired orders in the current transaction.
+     *
+     * @return [candidates found, orders released]
+     */
+    private int[] releaseBatch(LocalDateTime now) {
+        List<Long> candidates = reservationRepository.findExpiredOrderIds(now, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return new int[] { 0, 0 };
+        }
+
+        // Lock orders first, then products, both in ascending id order (same as cancelOrder)
+        List<Order> pending = orderRepository.findAllByIdAndStatusForUpdate(candidates, OrderStatus.PENDING);
+        Set<Long> paidOrderIds = pending.isEmpty()
+                ? Set.of()
+                : new HashSet<>(paymentRepository.findOrderIdsWithActivePayments(
+                        pending.stream().map(Order::getId).collect(Collectors.toList())));
+        List<Order> orders = pending.stream()
+                .filter(order -> !paidOrderIds.contains(order.getId()))
+                .collect(Collectors.toList());
+        List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+
+        if (!orderIds.isEmpty()) {
+            Map<Long, Integer> quantities = new TreeMap<>();
+            for (Object[] row : reservationRepository.sumActiveQuantitiesByProduct(orderIds)) {
+                quantities.put((Long) row[0], ((Number) row[1]).intValue());
+            }
+            Map<Long, Product> products = productRepository.findAllByIdForUpdate(quantities.keySet()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            quantities.forEach((productId, quantity) -> {
+                Product product = products.get(productId);
+                product.setStock(product.getStock() + quantity);
+            });
+            pricingSnapshot.refresh(products.values());
+            eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(products.keySet()));
+
+            orders.forEach(order -> order.setStatus(OrderStatus.CANCELED));
+        }
+
+        // Released orders, and candidates no longer PENDING, must not be picked up again.
+        // Orders paid in the meantime keep their reservation.
+        List<Long> closed = candidates.stream()
+                .filter(id -> !paidOrderIds.contains(id))
+                .collect(Collectors.toList());
+        if (!closed.isEmpty()) {
+            reservationRepository.updateStatusByOrderIds(closed,
+                    ReservationStatus.ACTIVE, ReservationStatus.RELEASED);
+        }
+        return new int[] { candidates.size(), orderIds.size() };
+    }
+
+    private void refreshMetrics() {
+        activeReservations.set(reservationRepository.countByStatus(ReservationStatus.ACTIVE));
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (Object[] row : reservationRepository.sumActiveQuantitiesByProduct()) {
+            rows.add(MultiGauge.Row.of(Tags.of("product", String.valueOf(row[0])), ((Number) row[1]).doubleValue()));
+        }
+        reservedUnits.register(rows, true);
+    }
+}
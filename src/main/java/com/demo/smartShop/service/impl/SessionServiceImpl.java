@@ -5,11 +5,17 @@ import com.demo.smartShop.entity.enums.UserRole;
 import com.demo.smartShop.service.SessionService;
 import javax.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
+/**
+ * Session state in the servlet session: the container's (smartshop.session.mode=servlet,
+ * the default) or one kept in a shared session store (store).
+ */
 @Service
+@ConditionalOnExpression("'${smartshop.session.mode:servlet}' != 'token'")
 @Slf4j
 public class SessionServiceImpl implements SessionService {
 
@@ -2,23 +2,33 @@ package com.demo.smartShop.service.impl;
 
 import com.demo.smartShop.dto.request.OrderItemRequest;
 import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.event.ProductsChangedEvent;
 import com.demo.smartShop.exception.InsufficientStockException;
 import com.demo.smartShop.exception.ResourceNotFoundException;
 import com.demo.smartShop.repository.ProductRepository;
 import com.demo.smartShop.service.StockService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Stock changes are single conditional UPDATE statements: no read-modify-write,
+ * no lost update, and the row lock is only held by the UPDATE itself.
+ */
 @Service
 @RequiredArgsConstructor
 public class StockServiceImpl implements StockService {
 
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -30,45 +40,71 @@ public class StockServiceImpl implements StockService {
 
     @Override
     @Transactional
-    public void decrementStock(Long productId, int quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
-
-        if (product.getStock() < quantity) {
-            throw new InsufficientStockException(product.getNom(), quantity, product.getStock());
+    public boolean tryDecrementStock(Long productId, int quantity) {
+        requirePositive(quantity);
+        if (!productRepository.tryDecrementStock(productId, quantity)) {
+            return false;
         }
-
-        product.setStock(product.getStock() - quantity);
-        productRepository.save(product);
+        eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(Set.of(productId)));
+        return true;
     }
 
     @Override
     @Transactional
-    public void incrementStock(Long productId, int quantity) {
+    public void decrementStock(Long productId, int quantity) {
+        requirePositive(quantity);
+        if (productRepository.tryDecrementStock(productId, quantity)) {
+            eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(Set.of(productId)));
+            return;
+        }
+
+        // Failure path only: read the row to report why the update did not apply
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        throw new InsufficientStockException(product.getNom(), quantity, product.getStock());
+    }
 
-        product.setStock(product.getStock() + quantity);
-        productRepository.save(product);
+    @Override
+    @Transactional
+    public void incrementStock(Long productId, int quantity) {
+        requirePositive(quantity);
+        if (productRepository.incrementStock(productId, quantity) == 0) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
+        eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(Set.of(productId)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public void validateStockForOrder(List<OrderItemRequest> items) {
-        Map<String, InsufficientStockException.StockInfo> insufficientProducts = new HashMap<>();
-
+        Map<Long, Integer> requested = new HashMap<>();
         for (OrderItemRequest item : items) {
-            Product product = productRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", item.getProductId()));
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(requested.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
 
-            if (product.getStock() < item.getQuantity()) {
+        Map<String, InsufficientStockException.StockInfo> insufficientProducts = new HashMap<>();
+        requested.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+            if (product.getStock() < quantity) {
                 insufficientProducts.put(product.getNom(),
-                        new InsufficientStockException.StockInfo(item.getQuantity(), product.getStock()));
+                        new InsufficientStockException.StockInfo(quantity, product.getStock()));
             }
-        }
+        });
 
         if (!insufficientProducts.isEmpty()) {
             throw new InsufficientStockException(insufficientProducts);
         }
     }
+
+    private void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.entity.User;
+import com.demo.smartShop.security.SessionTokenCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Session service of the token mode (smartshop.session.mode=token).
+ *
+ * Reads work as with servlet sessions, on the request-scoped session that
+ * {@link com.demo.smartShop.security.SessionTokenFilter} builds from the token. Creating a
+ * session also returns a signed token in the {@value #TOKEN_HEADER} response header;
+ * clients send it back as {@code Authorization: Bearer <token>}.
+ */
+@RequiredArgsConstructor
+public class TokenSessionService extends SessionServiceImpl {
+
+    public static final String TOKEN_HEADER = "X-Auth-Token";
+
+    private final SessionTokenCodec codec;
+
+    @Override
+    public void createSession(HttpSession session, User user) {
+        super.createSession(session, user);
+        String token = codec.issue(user.getId(), user.getRole(),
+                user.getClient() != null ? user.getClient().getId() : null);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        HttpServletResponse response = attributes instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes.getResponse()
+                : null;
+        if (response != null) {
+            response.setHeader(TOKEN_HEADER, token);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.demo.smartShop.util;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Runs an action once, just before the response is committed: on flush, close,
+ * sendError or sendRedirect, or before a write that fills the buffer or reaches the
+ * declared content length. Whatever the action persists is in place before the client
+ * can act on the response. Same triggers as Spring Session's OnCommittedResponseWrapper;
+ * writer output is counted in chars.
+ */
+public class BeforeCommitResponseWrapper extends HttpServletResponseWrapper {
+
+    private final Runnable beforeCommit;
+    private boolean done;
+    private long written;
+    private long contentLength = -1;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public BeforeCommitResponseWrapper(HttpServletResponse response, Runnable beforeCommit) {
+        super(response);
+        this.beforeCommit = beforeCommit;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        contentLength = length;
+        super.setContentLength(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        contentLength = length;
+        super.setContentLengthLong(length);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        contentLengthHeader(name, value);
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        contentLengthHeader(name, value);
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        contentLengthHeader(name, String.valueOf(value));
+        super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        contentLengthHeader(name, String.valueOf(value));
+        super.addIntHeader(name, value);
+    }
+
+    @Override
+    public void sendError(int status) throws IOException {
+        beforeCommit();
+        super.sendError(status);
+    }
+
+    @Override
+    public void sendError(int status, String message) throws IOException {
+        beforeCommit();
+        super.sendError(status, message);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        beforeCommit();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        beforeCommit();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        written = 0;
+        contentLength = -1;
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        written = 0;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CommitAwareOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new CommitAwareWriter(super.getWriter()));
+        }
+        return writer;
+    }
+
+    private void beforeCommit() {
+        if (!done) {
+            done = true;
+            beforeCommit.run();
+        }
+    }
+
+    // Called before the write is passed on
+    private void writing(long length) {
+        written += length;
+        if (written >= getBufferSize() || contentLength >= 0 && written >= contentLength) {
+            beforeCommit();
+        }
+    }
+
+    private void contentLengthHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            try {
+                contentLength = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                contentLength = -1;
+            }
+        }
+    }
+
+    private final class CommitAwareOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        private CommitAwareOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            writing(1);
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            writing(len);
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            beforeCommit();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            beforeCommit();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+
+    private final class CommitAwareWriter extends Writer {
+        private final Writer delegate;
+
+        private CommitAwareWriter(Writer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            writing(len);
+            delegate.write(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            beforeCommit();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            beforeCommit();
+            delegate.close();
+        }
+    }
+}
@@ -4,16 +4,35 @@ import org.mindrot.jbcrypt.BCrypt;
 
 public final class PasswordUtil {
 
-    private static final int BCRYPT_ROUNDS = 12;
+    public static final int DEFAULT_ROUNDS = 12;
 
     private PasswordUtil() {
     }
 
     public static String hash(String password) {
+        return hash(password, DEFAULT_ROUNDS);
+    }
+
+    public static String hash(String password, int rounds) {
         if (password == null || password.isBlank()) {
             throw new IllegalArgumentException("Password cannot be null or empty");
         }
-        return BCrypt.hashpw(password, BCrypt.gensalt(BCRYPT_ROUNDS));
+        return BCrypt.hashpw(password, BCrypt.gensalt(rounds));
+    }
+
+    /**
+     * Cost factor a hash was computed with ("$2a$12$..." gives 12), or -1 if it is not a BCrypt hash.
+     */
+    public static int rounds(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$'
+                || hashedPassword.charAt(3) != '$' || hashedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 
     public static boolean verify(String password, String hashedPassword) {
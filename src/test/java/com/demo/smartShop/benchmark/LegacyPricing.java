@@ -0,0 +1,48 @@
+package com.demo.smartShop.benchmark;
+
+import com.demo.smartShop.dto.response.OrderPricingDTO;
+import com.demo.smartShop.entity.enums.CustomerTier;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.regex.Pattern;
+
+/**
+ * Pricing code of OrderServiceImpl.createOrder before PricingEngine, kept as the
+ * reference for the parity test and the benchmark baseline.
+ */
+public final class LegacyPricing {
+
+    private static final Pattern PROMO_PATTERN = Pattern.compile("PROMO-[A-Z0-9]{4}");
+
+    private LegacyPricing() {
+    }
+
+    public static OrderPricingDTO price(BigDecimal subTotal, CustomerTier tier, String promoCode, BigDecimal tvaRate) {
+        BigDecimal discountPercentage = BigDecimal.ZERO;
+
+        if (tier == CustomerTier.SILVER && subTotal.compareTo(new BigDecimal("500")) >= 0) {
+            discountPercentage = discountPercentage.add(new BigDecimal("0.05"));
+        } else if (tier == CustomerTier.GOLD && subTotal.compareTo(new BigDecimal("800")) >= 0) {
+            discountPercentage = discountPercentage.add(new BigDecimal("0.10"));
+        } else if (tier == CustomerTier.PLATINUM && subTotal.compareTo(new BigDecimal("1200")) >= 0) {
+            discountPercentage = discountPercentage.add(new BigDecimal("0.15"));
+        }
+
+        if (promoCode != null && PROMO_PATTERN.matcher(promoCode).matches()) {
+            discountPercentage = discountPercentage.add(new BigDecimal("0.05"));
+        }
+
+        BigDecimal discountAmount = subTotal.multiply(discountPercentage).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal amountAfterDiscount = subTotal.subtract(discountAmount);
+        BigDecimal taxAmount = amountAfterDiscount.multiply(tvaRate).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal totalAmount = amountAfterDiscount.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
+
+        return OrderPricingDTO.builder()
+                .subTotal(subTotal)
+                .discountAmount(discountAmount)
+                .taxAmount(taxAmount)
+                .totalAmount(totalAmount)
+                .build();
+    }
+}
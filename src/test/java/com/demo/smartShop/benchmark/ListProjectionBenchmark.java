@@ -0,0 +1,135 @@
+package com.demo.smartShop.benchmark;
+
+import com.demo.smartShop.SmartShopApplication;
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.ProductDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.mapper.OrderMapper;
+import com.demo.smartShop.mapper.ProductMapper;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.OrderRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List endpoints: DTO projections against hydrating entities and mapping them
+ * (the former implementation), on the test H2 database.
+ *
+ * Run with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ListProjectionBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListProjectionBenchmark {
+
+    private static final int PRODUCTS = 200;
+    private static final int ORDERS = 500;
+    private static final Pageable PAGE = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "id"));
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private ProductRepository productRepository;
+    private OrderMapper orderMapper;
+    private ProductMapper productMapper;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SmartShopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN", "--spring.jpa.properties.hibernate.generate_statistics=false");
+        orderService = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        productRepository = context.getBean(ProductRepository.class);
+        orderMapper = context.getBean(OrderMapper.class);
+        productMapper = context.getBean(ProductMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(Product.builder().nom("Produit " + i).price(new BigDecimal("19.90")).stock(1_000_000).build());
+        }
+        products = productRepository.saveAll(products);
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            clients.add(Client.builder().nom("Client " + i).email("bench-" + i + "@test.com").build());
+        }
+        clients = context.getBean(ClientRepository.class).saveAll(clients);
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderItemDTO> items = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                items.add(OrderItemDTO.builder().productId(products.get((i * 3 + j) % PRODUCTS).getId()).quantity(1).build());
+            }
+            orderService.createOrder(OrderDTO.builder().clientId(clients.get(i % 20).getId()).items(items).build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<OrderDTO> ordersProjection() {
+        return orderService.getAllOrders(PAGE);
+    }
+
+    @Benchmark
+    public Page<OrderDTO> ordersEntities() {
+        return readOnly.execute(status -> orderRepository.findAll(PAGE).map(orderMapper::toDTO));
+    }
+
+    @Benchmark
+    public Page<ProductDTO> productsProjection() {
+        // Straight to the query: ProductService.getAllProducts would answer from the catalog cache
+        return readOnly.execute(status -> productRepository.findAllProjected(PAGE));
+    }
+
+    @Benchmark
+    public Page<ProductDTO> productsEntities() {
+        return readOnly.execute(status -> productRepository.findAll(PAGE).map(productMapper::toDTO));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListProjectionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.demo.smartShop.benchmark;
+
+import com.demo.smartShop.dto.response.OrderPricingDTO;
+import com.demo.smartShop.entity.enums.CustomerTier;
+import com.demo.smartShop.service.impl.PricingEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing engine against the former inline BigDecimal code of createOrder.
+ *
+ * Run with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main PricingEngineBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    private static final int CARTS = 1024;
+    private static final BigDecimal TVA_RATE = new BigDecimal("0.20");
+
+    private final BigDecimal[] subTotals = new BigDecimal[CARTS];
+    private final CustomerTier[] tiers = new CustomerTier[CARTS];
+    private final String[] promoCodes = new String[CARTS];
+    private PricingEngineImpl pricingEngine;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        pricingEngine = new PricingEngineImpl(TVA_RATE);
+        Random random = new Random(42);
+        CustomerTier[] allTiers = CustomerTier.values();
+        for (int i = 0; i < CARTS; i++) {
+            subTotals[i] = BigDecimal.valueOf(random.nextInt(2_000_00), 2);
+            tiers[i] = allTiers[random.nextInt(allTiers.length)];
+            promoCodes[i] = random.nextBoolean() ? "PROMO-" + (1000 + random.nextInt(9000)) : null;
+        }
+    }
+
+    @Benchmark
+    public OrderPricingDTO pricingEngine() {
+        int i = next++ & (CARTS - 1);
+        return pricingEngine.price(subTotals[i], tiers[i], promoCodes[i]);
+    }
+
+    @Benchmark
+    public OrderPricingDTO legacyBigDecimal() {
+        int i = next++ & (CARTS - 1);
+        return LegacyPricing.price(subTotals[i], tiers[i], promoCodes[i], TVA_RATE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PricingEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.demo.smartShop.benchmark;
+
+import com.demo.smartShop.service.impl.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search index queries on a synthetic catalog of 500k products: French category and
+ * adjective words in names, plus descriptions drawn from a skewed 20k-word vocabulary.
+ *
+ * Run with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -Xmx2g -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ProductSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 500_000;
+    private static final String[] CATEGORIES = {
+            "chaise", "table", "lampe", "cafetière", "théière", "tasse", "casque", "écran", "clavier", "souris",
+            "chargeur", "câble", "enceinte", "montre", "sac", "veste", "chaussure", "étagère", "bouilloire", "poêle"};
+    private static final String[] ADJECTIVES = {
+            "noir", "blanc", "rouge", "bleu", "élégant", "compact", "portable", "sans fil", "électrique", "pliable"};
+    private static final int VOCABULARY = 20_000;
+
+    // "mot" is the widest 3-letter prefix (every description word), "mo" a 2-letter one
+    @Param({"chaise", "chaise noir", "cha", "électrique pli", "mot12345", "mo", "mot", "mot12",
+            "mot cha mod mot1 mot2 mot3 mot4 mot5"})
+    public String query;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            vocabulary[i] = "mot" + i;
+        }
+        index = new ProductSearchIndex();
+        StringBuilder description = new StringBuilder();
+        for (int id = 1; id <= PRODUCTS; id++) {
+            String nom = CATEGORIES[random.nextInt(CATEGORIES.length)] + " "
+                    + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " modèle " + random.nextInt(10_000);
+            description.setLength(0);
+            for (int w = 0; w < 12; w++) {
+                // Squared uniform: low word numbers are much more frequent, as in real text
+                double skew = random.nextDouble();
+                description.append(vocabulary[(int) (skew * skew * VOCABULARY)]).append(' ');
+            }
+            index.put(id, 0, nom, description.toString(), false);
+        }
+    }
+
+    @Benchmark
+    public ProductSearchIndex.Hits firstPage() {
+        return index.search(query, 0, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
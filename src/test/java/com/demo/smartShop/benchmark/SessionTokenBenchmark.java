@@ -0,0 +1,114 @@
+package com.demo.smartShop.benchmark;
+
+import com.demo.smartShop.config.SessionTokenProperties;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.User;
+import com.demo.smartShop.entity.enums.UserRole;
+import com.demo.smartShop.security.SessionClaims;
+import com.demo.smartShop.security.SessionTokenCodec;
+import com.demo.smartShop.security.TokenSession;
+import com.demo.smartShop.service.impl.SessionServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpSession;
+
+import javax.servlet.http.HttpSession;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of reading the user id, role and client id: from a signed token
+ * (verify, then the request-scoped session built from it) against a servlet session
+ * looked up by id, as Tomcat's session manager does, among SESSIONS live sessions.
+ *
+ * Run with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SessionTokenBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionTokenBenchmark {
+
+    private static final int SESSIONS = 10_000;
+    private static final String BEARER = "Bearer ";
+
+    private final SessionServiceImpl sessionService = new SessionServiceImpl();
+    private final Map<String, HttpSession> sessions = new ConcurrentHashMap<>();
+    private final String[] sessionIds = new String[SESSIONS];
+    private final String[] authorizations = new String[SESSIONS];
+    private SessionTokenCodec codec;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SessionTokenProperties.Key key = new SessionTokenProperties.Key();
+        key.setId("k1");
+        key.setSecret("benchmark-secret-of-at-least-32-bytes");
+        SessionTokenProperties properties = new SessionTokenProperties();
+        properties.setKeys(List.of(key));
+        codec = new SessionTokenCodec(properties, Clock.systemUTC());
+
+        for (int i = 0; i < SESSIONS; i++) {
+            User user = User.builder()
+                    .id((long) i)
+                    .username("user" + i)
+                    .role(UserRole.CLIENT)
+                    .client(Client.builder().id(100_000L + i).build())
+                    .build();
+            MockHttpSession session = new MockHttpSession();
+            sessionService.createSession(session, user);
+            sessions.put(session.getId(), session);
+            sessionIds[i] = session.getId();
+            authorizations[i] = BEARER + codec.issue(user.getId(), user.getRole(), user.getClient().getId());
+        }
+    }
+
+    @Benchmark
+    public void servletSession(Blackhole blackhole) {
+        HttpSession session = sessions.get(sessionIds[next++ % SESSIONS]);
+        read(session, blackhole);
+    }
+
+    @Benchmark
+    public void signedToken(Blackhole blackhole) {
+        SessionClaims claims = codec.verify(authorizations[next++ % SESSIONS], BEARER.length());
+        read(new TokenSession(null, claims), blackhole);
+    }
+
+    // Verification alone, without the session adapter
+    @Benchmark
+    public SessionClaims signedTokenVerifyOnly() {
+        return codec.verify(authorizations[next++ % SESSIONS], BEARER.length());
+    }
+
+    private void read(HttpSession session, Blackhole blackhole) {
+        blackhole.consume(sessionService.getCurrentUserId(session));
+        blackhole.consume(sessionService.getCurrentUserRole(session));
+        blackhole.consume(sessionService.getCurrentClientId(session));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SessionTokenBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
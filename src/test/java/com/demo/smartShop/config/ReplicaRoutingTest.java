@@ -0,0 +1,132 @@
+package com.demo.smartShop.config;
+
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.repository.ProductRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration du routage des transactions en lecture seule vers les réplicas.
+ *
+ * Primaire et réplica pointent sur la même base H2 (dédiée à ce test) via deux pools
+ * distincts : le pool qui tient la connexion pendant la transaction indique la route.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.URL,
+        "smartshop.datasource.replicas[0].url=" + ReplicaRoutingTest.URL,
+        "smartshop.datasource.replicas[0].username=sa",
+        "smartshop.datasource.replicas[0].password=",
+        "smartshop.datasource.read-your-writes-window=5s"
+})
+@DirtiesContext
+@DisplayName("Replica Routing Tests")
+class ReplicaRoutingTest {
+
+    static final String URL = "jdbc:h2:mem:smartshop-routing;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("Devrait lire sur le réplica et écrire sur le primaire")
+    void shouldRouteByTransactionType() {
+        readOnly.executeWithoutResult(status -> {
+            productRepository.count();
+            assertEquals(1, active("replica-1"));
+            assertEquals(0, active(ReplicaRoutingDataSource.PRIMARY));
+        });
+
+        readWrite.executeWithoutResult(status -> {
+            productRepository.save(Product.builder().nom("Routeur").price(BigDecimal.TEN).stock(1).build());
+            productRepository.flush();
+            assertEquals(1, active(ReplicaRoutingDataSource.PRIMARY));
+            assertEquals(0, active("replica-1"));
+        });
+
+        assertTrue(meterRegistry.get("smartshop.datasource.connections.routed")
+                .tag("route", "replica-1").counter().count() > 0);
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").tag("pool", "replica-1").gauge());
+    }
+
+    @Test
+    @DisplayName("Devrait garder les lectures d'une session sur le primaire après une écriture")
+    void shouldReadYourWritesWithinWindow() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        MockHttpSession session = new MockHttpSession();
+
+        filter.doFilter(request(session), new MockHttpServletResponse(), (req, res) -> readOnly.executeWithoutResult(status -> {
+            productRepository.count();
+            assertEquals(1, active("replica-1"));
+        }));
+        assertNull(session.getAttribute(ReadYourWritesFilter.PRIMARY_UNTIL));
+
+        filter.doFilter(request(session), new MockHttpServletResponse(), (req, res) -> {
+            readWrite.executeWithoutResult(status ->
+                    productRepository.saveAndFlush(Product.builder().nom("Switch").price(BigDecimal.ONE).stock(1).build()));
+            res.flushBuffer();
+            // Set before the response went out, for a session store to persist it in time
+            assertNotNull(session.getAttribute(ReadYourWritesFilter.PRIMARY_UNTIL));
+        });
+
+        filter.doFilter(request(session), new MockHttpServletResponse(), (req, res) -> readOnly.executeWithoutResult(status -> {
+            productRepository.count();
+            assertEquals(1, active(ReplicaRoutingDataSource.PRIMARY));
+            assertEquals(0, active("replica-1"));
+        }));
+    }
+
+    private static MockHttpServletRequest request(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setSession(session);
+        return request;
+    }
+
+    // Read from the pool itself: the hikaricp.* gauges are refreshed at most once per second
+    private int active(String pool) {
+        try {
+            HikariDataSource hikari = (HikariDataSource) dataSource.unwrap(ReplicaRoutingDataSource.class)
+                    .getResolvedDataSources().get(pool);
+            return hikari.getHikariPoolMXBean().getActiveConnections();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.demo.smartShop.controller;
 
 import com.demo.smartShop.dto.response.UserDTO;
 import com.demo.smartShop.entity.enums.UserRole;
+import com.demo.smartShop.security.LoginThrottle;
+import com.demo.smartShop.security.Ownership;
 import com.demo.smartShop.service.AuthService;
+import com.demo.smartShop.service.SessionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -38,6 +41,16 @@ class AuthControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private LoginThrottle loginThrottle;
+
+    // Read by the authorization interceptor and body advice
+    @MockBean
+    private SessionService sessionService;
+
+    @MockBean
+    private Ownership ownership;
+
     private UserDTO adminUserDTO;
     private UserDTO clientUserDTO;
     private MockHttpSession mockSession;
@@ -0,0 +1,177 @@
+package com.demo.smartShop.controller;
+
+import com.demo.smartShop.dto.request.CreateOrderRequest;
+import com.demo.smartShop.dto.request.OrderItemRequest;
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.PaymentDTO;
+import com.demo.smartShop.dto.response.ProductDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.entity.enums.UserRole;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration de l'autorisation par annotations (@AdminOnly, @ClientOwned, @OrderOwned, @Authenticated).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Authorization Interceptor Tests")
+class AuthorizationInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder()
+                .nom("Auth Client")
+                .email("auth-" + System.nanoTime() + "@test.com")
+                .build());
+    }
+
+    @Test
+    @DisplayName("Devrait répondre 401 à un appel anonyme sans créer de session")
+    void shouldRejectAnonymousWithoutCreatingSession() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/clients"))
+                .andExpect(status().isUnauthorized())
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+
+        result = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+    }
+
+    @Test
+    @DisplayName("Devrait répondre 403 à un client sur les endpoints admin")
+    void shouldForbidClientOnAdminEndpoints() throws Exception {
+        MockHttpSession session = session(UserRole.CLIENT, client.getId());
+
+        mockMvc.perform(get("/api/clients").session(session))
+                .andExpect(status().isForbidden());
+        // @AdminOnly posé sur la classe
+        mockMvc.perform(get("/api/promo-codes").session(session))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/clients").session(session(UserRole.ADMIN, null)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Devrait limiter un client à ses propres commandes")
+    void shouldRestrictClientToOwnOrders() throws Exception {
+        String url = "/api/clients/" + client.getId() + "/orders";
+
+        mockMvc.perform(get(url).session(session(UserRole.CLIENT, client.getId())))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(url).session(session(UserRole.CLIENT, client.getId() + 1)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(url).session(session(UserRole.ADMIN, null)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Devrait servir /api/clients/me en une seule requête SQL")
+    void shouldServeMyProfileWithSingleStatement() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/clients/me").session(session(UserRole.CLIENT, client.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(client.getId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/clients/me").session(session(UserRole.ADMIN, null)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Devrait vérifier la propriété d'une commande par chemin ou par corps de requête")
+    void shouldRestrictClientToOwnOrderByPathOrBody() throws Exception {
+        ProductDTO product = productService.createProduct(ProductDTO.builder()
+                .nom("Casque").price(new BigDecimal("59.00")).stock(10).build());
+        OrderDTO order = orderService.createOrder(OrderDTO.builder()
+                .clientId(client.getId())
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(1).build()))
+                .build());
+        MockHttpSession owner = session(UserRole.CLIENT, client.getId());
+        MockHttpSession other = session(UserRole.CLIENT, client.getId() + 1);
+        String payment = objectMapper.writeValueAsString(PaymentDTO.builder()
+                .orderId(order.getId()).amount(new BigDecimal("10.00")).type(PaymentType.ESPECES).build());
+        String quote = objectMapper.writeValueAsString(CreateOrderRequest.builder()
+                .clientId(client.getId())
+                .items(List.of(OrderItemRequest.builder().productId(product.getId()).quantity(1).build()))
+                .build());
+
+        mockMvc.perform(get("/api/payments/order/" + order.getId()).session(other))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/payments").session(other)
+                        .contentType(MediaType.APPLICATION_JSON).content(payment))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/orders/quote").session(other)
+                        .contentType(MediaType.APPLICATION_JSON).content(quote))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/orders/" + order.getId() + "/cancel").session(other))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/orders/" + (order.getId() + 1000) + "/cancel").session(owner))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/payments/order/" + order.getId()).session(owner))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders/quote").session(owner)
+                        .contentType(MediaType.APPLICATION_JSON).content(quote))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders/" + order.getId() + "/cancel").session(owner))
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpSession session(UserRole role, Long clientId) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("USER_ID", 1L);
+        session.setAttribute("USER_ROLE", role.name());
+        session.setAttribute("CLIENT_ID", clientId);
+        return session;
+    }
+}
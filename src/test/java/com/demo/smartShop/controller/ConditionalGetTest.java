@@ -0,0 +1,162 @@
+package com.demo.smartShop.controller;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.ProductDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.enums.UserRole;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.ProductService;
+import com.jayway.jsonpath.JsonPath;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration pour les GET conditionnels (ETag / If-None-Match).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Conditional GET Tests")
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ProductDTO product;
+
+    @BeforeEach
+    void setUp() {
+        product = productService.createProduct(ProductDTO.builder()
+                .nom("Tablette").price(new BigDecimal("299.00")).stock(10).build());
+    }
+
+    @Test
+    @DisplayName("Devrait répondre 304 pour un produit inchangé, puis 200 après mise à jour")
+    void shouldRevalidateProduct() throws Exception {
+        String url = "/api/products/" + product.getId();
+        String eTag = eTagOf(url, new MockHttpSession());
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        productService.updateProduct(product.getId(), ProductDTO.builder()
+                .nom("Tablette").price(new BigDecimal("279.00")).stock(10).build());
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(279.00));
+    }
+
+    @Test
+    @DisplayName("Devrait répondre 304 pour une page du catalogue inchangée, puis 200 après création")
+    void shouldRevalidateCatalogPage() throws Exception {
+        String url = "/api/products?size=5&sort=id,desc";
+        MockHttpServletResponse first = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+        int total = JsonPath.read(first.getContentAsString(), "$.totalElements");
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        productService.createProduct(ProductDTO.builder()
+                .nom("Stylet").price(new BigDecimal("29.00")).stock(10).build());
+
+        // Ids are not ordered across test contexts sharing the database: check the count, not the first row
+        String newETag = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(total + 1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    @DisplayName("Devrait décider le 304 d'une commande sans la charger")
+    void shouldRevalidateOrderWithoutLoadingIt() throws Exception {
+        Client client = clientRepository.save(Client.builder()
+                .nom("ETag Client")
+                .email("etag-" + System.nanoTime() + "@test.com")
+                .build());
+        OrderDTO order = orderService.createOrder(OrderDTO.builder()
+                .clientId(client.getId())
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(2).build()))
+                .build());
+        String url = "/api/orders/" + order.getId();
+        MockHttpSession owner = session(UserRole.CLIENT, client.getId());
+        String eTag = eTagOf(url, owner);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url).session(owner).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // Ownership is still checked before answering 304
+        mockMvc.perform(get(url).session(session(UserRole.CLIENT, -1L)).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isForbidden());
+
+        // The order shows the product name: renaming the product changes the order ETag
+        productService.updateProduct(product.getId(), ProductDTO.builder()
+                .nom("Tablette 10 pouces").price(new BigDecimal("299.00")).stock(8).build());
+        mockMvc.perform(get(url).session(owner).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].productName").value("Tablette 10 pouces"));
+
+        orderService.cancelOrder(order.getId());
+
+        mockMvc.perform(get(url).session(owner).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELED"));
+    }
+
+    private String eTagOf(String url, MockHttpSession session) throws Exception {
+        String eTag = mockMvc.perform(get(url).session(session))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        assertFalse(eTag.startsWith("W/"));
+        return eTag;
+    }
+
+    private MockHttpSession session(UserRole role, Long clientId) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("USER_ID", 1L);
+        session.setAttribute("USER_ROLE", role.name());
+        session.setAttribute("CLIENT_ID", clientId);
+        return session;
+    }
+}
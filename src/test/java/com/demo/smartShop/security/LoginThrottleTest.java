@@ -0,0 +1,97 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration pour la limitation des tentatives de connexion.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("LoginThrottle Tests")
+class LoginThrottleTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Devrait répondre 429 sans accès à la base une fois les tentatives épuisées")
+    void shouldRejectBeforeAnyLookup() throws Exception {
+        String username = "stuffing-" + System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(login(username, "10.0.0.1"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        // Same username from another address: still refused
+        mockMvc.perform(login(username, "10.0.0.2"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Devrait rendre des tentatives avec le temps et après une connexion réussie")
+    void shouldRefillOverTimeAndOnSuccess() {
+        AtomicLong now = new AtomicLong();
+        LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(throttle, "usernameCapacity", 2);
+        ReflectionTestUtils.setField(throttle, "usernameRefill", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(throttle, "ipCapacity", 100);
+        ReflectionTestUtils.setField(throttle, "ipRefill", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(throttle, "maxKeys", 1000L);
+        throttle.clock = now::get;
+        throttle.init();
+
+        throttle.acquire("alice", "10.0.0.3");
+        throttle.acquire("alice", "10.0.0.3");
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> throttle.acquire("alice", "10.0.0.3"));
+        assertEquals(10, e.getRetryAfterSeconds());
+        throttle.acquire("bob", "10.0.0.3");
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        throttle.acquire("alice", "10.0.0.3");
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("alice", "10.0.0.3"));
+
+        throttle.onSuccess("alice");
+        throttle.acquire("alice", "10.0.0.3");
+    }
+
+    private static MockHttpServletRequestBuilder login(String username, String remoteAddr) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"wrong\"}")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    return request;
+                });
+    }
+}
@@ -0,0 +1,115 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.entity.enums.UserRole;
+import com.demo.smartShop.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests unitaires pour @ClientOwned / @OrderOwned mal configurés : la requête est refusée
+ * et le démarrage échoue.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Owned Handler Tests")
+class OwnedHandlerTest {
+
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    @Mock
+    private Ownership ownership;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new MisconfiguredController())
+                .addInterceptors(new AuthorizationInterceptor(currentUserResolver, ownership))
+                .setControllerAdvice(new GlobalExceptionHandler(), new OwnedBodyAdvice(currentUserResolver, ownership))
+                .build();
+        lenient().when(currentUserResolver.require(any(HttpServletRequest.class)))
+                .thenReturn(new CurrentUser(1L, UserRole.CLIENT, 3L));
+    }
+
+    @Test
+    @DisplayName("Devrait refuser la requête quand l'identifiant nommé n'est ni dans le chemin ni dans le corps")
+    void shouldRefuseUnresolvedOwner() throws Exception {
+        mockMvc.perform(get("/things/5"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/things").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"x\"}"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(ownership);
+    }
+
+    @Test
+    @DisplayName("Devrait faire échouer le démarrage sur un gestionnaire mal annoté")
+    void shouldRejectMisconfiguredHandlerAtStartup() throws Exception {
+        MisconfiguredController controller = new MisconfiguredController();
+        HandlerMethod byPath = new HandlerMethod(controller,
+                MisconfiguredController.class.getMethod("getThing", Long.class));
+        HandlerMethod byBody = new HandlerMethod(controller,
+                MisconfiguredController.class.getMethod("addThing", Thing.class));
+
+        assertThrows(IllegalStateException.class, () -> OwnedHandlerValidator.validate(
+                Map.of(RequestMappingInfo.paths("/things/{id}").build(), byPath)));
+        assertThrows(IllegalStateException.class, () -> OwnedHandlerValidator.validate(
+                Map.of(RequestMappingInfo.paths("/things").build(), byBody)));
+        // Same handler, mapped with the variable it names
+        assertDoesNotThrow(() -> OwnedHandlerValidator.validate(
+                Map.of(RequestMappingInfo.paths("/orders/{orderId}/things/{id}").build(), byPath)));
+    }
+
+    @RestController
+    static class MisconfiguredController {
+
+        // "orderId" where the path only has {id}
+        @GetMapping("/things/{id}")
+        @OrderOwned("orderId")
+        public String getThing(@PathVariable Long id) {
+            return "thing";
+        }
+
+        @PostMapping("/things")
+        @ClientOwned("clientId")
+        public String addThing(@RequestBody Thing thing) {
+            return thing.getName();
+        }
+    }
+
+    static class Thing {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.entity.User;
+import com.demo.smartShop.entity.enums.UserRole;
+import com.demo.smartShop.exception.ServiceUnavailableException;
+import com.demo.smartShop.repository.UserRepository;
+import com.demo.smartShop.service.AuthService;
+import com.demo.smartShop.util.PasswordUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour le hachage des mots de passe sur un pool borné.
+ */
+@SpringBootTest
+@DisplayName("PasswordHasher Tests")
+class PasswordHasherTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Test
+    @DisplayName("Devrait re-hacher au coût configuré lors d'une connexion réussie")
+    void shouldRehashOnSuccessfulLogin() {
+        String username = "rehash-" + System.nanoTime();
+        User user = userRepository.save(User.builder()
+                .username(username)
+                .password(PasswordUtil.hash("secret123", 4))
+                .role(UserRole.ADMIN)
+                .build());
+        assertTrue(passwordHasher.needsRehash(user.getPassword()));
+
+        authService.login(username, "secret123", new MockHttpSession());
+
+        String rehashed = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertEquals(PasswordUtil.DEFAULT_ROUNDS, PasswordUtil.rounds(rehashed));
+        assertFalse(passwordHasher.needsRehash(rehashed));
+        assertTrue(passwordHasher.verify("secret123", rehashed));
+    }
+
+    @Test
+    @DisplayName("Devrait répondre 503 immédiatement quand le pool est saturé")
+    void shouldRejectWhenSaturated() throws Exception {
+        PasswordHasher hasher = new PasswordHasher(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(hasher, "cost", 14);
+        ReflectionTestUtils.setField(hasher, "threads", 1);
+        ReflectionTestUtils.setField(hasher, "queueCapacity", 1);
+        ReflectionTestUtils.setField(hasher, "waitTimeout", Duration.ofSeconds(30));
+        hasher.init();
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(hasher, "executor");
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // One hash running, one queued
+            CompletableFuture.runAsync(() -> hasher.hash("first"), callers);
+            CompletableFuture.runAsync(() -> hasher.hash("second"), callers);
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (executor.getQueue().size() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            long start = System.nanoTime();
+            ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                    () -> hasher.verify("third", PasswordUtil.hash("third", 4)));
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 500);
+            assertEquals(1, e.getRetryAfterSeconds());
+        } finally {
+            callers.shutdownNow();
+            hasher.shutdown();
+        }
+    }
+}
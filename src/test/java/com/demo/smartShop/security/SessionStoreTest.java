@@ -0,0 +1,162 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.repository.SessionRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration pour les sessions partagées via le stockage JDBC.
+ */
+@SpringBootTest(properties = {
+        "smartshop.session.mode=store",
+        "smartshop.session.store.type=jdbc",
+        "smartshop.session.store.sweep-batch-size=2"
+})
+@AutoConfigureMockMvc
+@DisplayName("Session Store Tests")
+class SessionStoreTest {
+
+    private static final String COOKIE = "SMARTSHOP_SESSION";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Autowired
+    private SessionStoreSweeper sweeper;
+
+    @Autowired
+    private SessionRecordRepository sessionRecordRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Devrait partager la connexion via le stockage et n'écrire que les changements")
+    void shouldShareLoginThroughStoreAndCoalesceWrites() throws Exception {
+        Cookie session = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"kawtar\",\"password\":\"kawtar123\"}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(COOKIE))
+                .andReturn().getResponse().getCookie(COOKIE);
+        assertTrue(sessionRecordRepository.existsById(session.getValue()));
+        double saves = saves();
+
+        // A fresh cookie, as a request landing on another instance would carry
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/clients").cookie(new Cookie(COOKIE, session.getValue())))
+                    .andExpect(status().isOk());
+        }
+        assertEquals(saves, saves());
+
+        mockMvc.perform(post("/api/auth/logout").cookie(session))
+                .andExpect(status().isOk());
+        assertFalse(sessionRecordRepository.existsById(session.getValue()));
+        mockMvc.perform(get("/api/clients").cookie(session))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Devrait supprimer les sessions expirées par lots")
+    void shouldSweepExpiredSessionsInBatches() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            sessionStore.save(new SessionStore.SessionData("expired-" + i, Map.of("USER_ID", 1L),
+                    now - 60_000, now - 1_000));
+        }
+        sessionStore.save(new SessionStore.SessionData("live", Map.of("USER_ID", 1L), now, now + 60_000));
+
+        sweeper.sweep();
+
+        for (int i = 0; i < 5; i++) {
+            assertFalse(sessionRecordRepository.existsById("expired-" + i));
+        }
+        assertNotNull(sessionStore.load("live", System.currentTimeMillis()));
+        assertEquals(sessionStore.count(System.currentTimeMillis()),
+                meterRegistry.get("smartshop.session.store.sessions").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Devrait changer l'identifiant de session en gardant les attributs")
+    void shouldChangeSessionIdKeepingAttributes() throws Exception {
+        long now = System.currentTimeMillis();
+        sessionStore.save(new SessionStore.SessionData("fixated", Map.of("USER_ID", 7L), now, now + 60_000));
+        SessionStoreFilter filter = new SessionStoreFilter(sessionStore, Duration.ofMinutes(30), COOKIE,
+                new SimpleMeterRegistry());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setCookies(new Cookie(COOKIE, "fixated"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String[] newId = new String[1];
+
+        filter.doFilter(request, response, (req, res) -> {
+            HttpServletRequest wrapped = (HttpServletRequest) req;
+            HttpSession session = wrapped.getSession(false);
+            newId[0] = wrapped.changeSessionId();
+            assertEquals(newId[0], session.getId());
+            session.setAttribute("USER_ROLE", "ADMIN");
+        });
+
+        assertNotEquals("fixated", newId[0]);
+        assertEquals(newId[0], response.getCookie(COOKIE).getValue());
+        assertNull(sessionStore.load("fixated", System.currentTimeMillis()));
+        assertEquals(Map.of("USER_ID", 7L, "USER_ROLE", "ADMIN"),
+                sessionStore.load(newId[0], System.currentTimeMillis()).attributes());
+    }
+
+    @Test
+    @DisplayName("Devrait enregistrer la session avant que la réponse ne parte")
+    void shouldSaveSessionBeforeResponseCommits() throws Exception {
+        MeterRegistry firstRegistry = new SimpleMeterRegistry();
+        SessionStoreFilter first = new SessionStoreFilter(sessionStore, Duration.ofMinutes(30), COOKIE, firstRegistry);
+        SessionStoreFilter second = new SessionStoreFilter(sessionStore, Duration.ofMinutes(30), COOKIE,
+                new SimpleMeterRegistry());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        first.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), response, (req, res) -> {
+            ((HttpServletRequest) req).getSession().setAttribute("USER_ID", 7L);
+            res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+            res.getOutputStream().flush();
+            assertTrue(response.isCommitted());
+
+            // The client has its cookie: the next request lands on another instance at once
+            MockHttpServletRequest next = new MockHttpServletRequest("GET", "/api/clients");
+            next.setCookies(response.getCookie(COOKIE));
+            second.doFilter(next, new MockHttpServletResponse(), (nextReq, nextRes) -> {
+                HttpSession shared = ((HttpServletRequest) nextReq).getSession(false);
+                assertNotNull(shared);
+                assertEquals(7L, shared.getAttribute("USER_ID"));
+            });
+        });
+
+        // Nothing changed after the commit: not written again
+        assertEquals(1, firstRegistry.get("smartshop.session.store").tag("operation", "save").timer().count());
+    }
+
+    private double saves() {
+        return meterRegistry.get("smartshop.session.store").tag("operation", "save").timer().count();
+    }
+}
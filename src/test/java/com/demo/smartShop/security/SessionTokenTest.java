@@ -0,0 +1,102 @@
+package com.demo.smartShop.security;
+
+import com.demo.smartShop.config.SessionTokenProperties;
+import com.demo.smartShop.entity.enums.UserRole;
+import com.demo.smartShop.service.impl.TokenSessionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration pour les sessions sans état (jetons signés HMAC).
+ */
+@SpringBootTest(properties = {
+        "smartshop.session.mode=token",
+        "smartshop.session.token.keys[0].id=k2",
+        "smartshop.session.token.keys[0].secret=" + SessionTokenTest.CURRENT_SECRET,
+        "smartshop.session.token.keys[1].id=k1",
+        "smartshop.session.token.keys[1].secret=" + SessionTokenTest.PREVIOUS_SECRET
+})
+@AutoConfigureMockMvc
+@DisplayName("Session Token Tests")
+class SessionTokenTest {
+
+    static final String CURRENT_SECRET = "current-secret-of-at-least-32-bytes!";
+    static final String PREVIOUS_SECRET = "previous-secret-of-at-least-32-bytes";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Devrait authentifier par jeton sans créer de session serveur")
+    void shouldAuthenticateWithTokenWithoutServerSession() throws Exception {
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"kawtar\",\"password\":\"kawtar123\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(TokenSessionService.TOKEN_HEADER))
+                .andReturn();
+        String token = login.getResponse().getHeader(TokenSessionService.TOKEN_HEADER);
+        assertNull(login.getRequest().getSession(false));
+
+        mockMvc.perform(get("/api/clients").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/clients"))
+                .andExpect(status().isUnauthorized());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        mockMvc.perform(get("/api/clients").header(HttpHeaders.AUTHORIZATION, "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Devrait accepter les jetons de l'ancienne clé et refuser les jetons expirés")
+    void shouldHandleRotationAndExpiry() {
+        Instant now = Instant.parse("2026-01-01T08:00:00Z");
+        SessionTokenCodec previous = codec(Clock.fixed(now, ZoneOffset.UTC), key("k1", PREVIOUS_SECRET));
+        SessionTokenCodec current = codec(Clock.fixed(now, ZoneOffset.UTC),
+                key("k2", CURRENT_SECRET), key("k1", PREVIOUS_SECRET));
+        SessionTokenCodec later = codec(Clock.fixed(now.plus(Duration.ofHours(9)), ZoneOffset.UTC),
+                key("k2", CURRENT_SECRET), key("k1", PREVIOUS_SECRET));
+
+        String oldToken = previous.issue(7L, UserRole.CLIENT, 42L);
+        SessionClaims claims = current.verify(oldToken);
+        assertNotNull(claims);
+        assertEquals(7L, claims.userId());
+        assertEquals(UserRole.CLIENT, claims.role());
+        assertEquals(42L, claims.clientId());
+        assertTrue(current.issue(1L, UserRole.ADMIN, null).startsWith("k2."));
+        assertNull(current.verify(1L + "." + oldToken));
+        assertNull(later.verify(oldToken));
+        assertNull(current.verify("k9" + oldToken.substring(2)));
+    }
+
+    private static SessionTokenCodec codec(Clock clock, SessionTokenProperties.Key... keys) {
+        SessionTokenProperties properties = new SessionTokenProperties();
+        properties.setKeys(List.of(keys));
+        return new SessionTokenCodec(properties, clock);
+    }
+
+    private static SessionTokenProperties.Key key(String id, String secret) {
+        SessionTokenProperties.Key key = new SessionTokenProperties.Key();
+        key.setId(id);
+        key.setSecret(secret);
+        return key;
+    }
+}
@@ -0,0 +1,127 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.request.ClientBulkRequest;
+import com.demo.smartShop.dto.request.CreateClientRequest;
+import com.demo.smartShop.dto.response.ClientBulkResultDTO;
+import com.demo.smartShop.dto.response.ClientDTO;
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.repository.UserRepository;
+import com.demo.smartShop.service.ClientService;
+import com.demo.smartShop.service.OrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour la suppression et l'archivage de clients en masse (POST /api/clients/bulk).
+ */
+@SpringBootTest
+@DisplayName("Client Bulk Update Tests")
+class ClientBulkUpdateTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Devrait supprimer les clients sans commande et archiver les autres")
+    void shouldDeleteClientsWithoutOrdersAndArchiveOthers() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(newClient("bulk-delete-" + i).getId());
+        }
+        Long withOrders = ids.get(0);
+        placeOrder(withOrders);
+        ids.add(Long.MAX_VALUE);
+
+        ClientBulkResultDTO result = clientService.bulkUpdate(ClientBulkRequest.builder()
+                .action(ClientBulkRequest.Action.DELETE)
+                .clientIds(ids)
+                .build());
+
+        assertEquals(4, result.getRequested());
+        assertEquals(2, result.getDeleted());
+        assertEquals(1, result.getArchived());
+        assertEquals(1, result.getSkipped());
+        assertEquals(3, result.getUsersDeleted());
+        assertTrue(clientRepository.findById(withOrders).orElseThrow().isArchived());
+        assertFalse(clientRepository.existsById(ids.get(1)));
+        assertFalse(clientRepository.existsById(ids.get(2)));
+        assertTrue(userRepository.findByClientId(withOrders).isEmpty());
+        assertEquals(1, clientService.getClientOrders(withOrders).size());
+        assertTrue(clientService.getAllClients(Pageable.unpaged()).stream()
+                .noneMatch(client -> client.getId().equals(withOrders)));
+    }
+
+    @Test
+    @DisplayName("Devrait archiver de nombreux clients en quelques requêtes")
+    void shouldArchiveManyClientsInFewStatements() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(newClient("bulk-archive-" + i).getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        ClientBulkResultDTO result = clientService.bulkUpdate(ClientBulkRequest.builder()
+                .action(ClientBulkRequest.Action.ARCHIVE)
+                .clientIds(ids)
+                .build());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(20, result.getArchived());
+        assertEquals(0, result.getDeleted());
+        assertEquals(20, result.getUsersDeleted());
+        assertEquals(2, statements);
+        assertTrue(ids.stream().allMatch(id -> clientRepository.findById(id).orElseThrow().isArchived()));
+    }
+
+    private ClientDTO newClient(String name) {
+        String unique = name + "-" + System.nanoTime();
+        return clientService.createClient(CreateClientRequest.builder()
+                .nom(name)
+                .email(unique + "@test.com")
+                .username(unique)
+                .password("secret123")
+                .build());
+    }
+
+    private void placeOrder(Long clientId) {
+        Product product = productRepository.save(Product.builder()
+                .nom("Clavier").price(new BigDecimal("40.00")).stock(10).build());
+        orderService.createOrder(OrderDTO.builder()
+                .clientId(clientId)
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(1).build()))
+                .build());
+    }
+}
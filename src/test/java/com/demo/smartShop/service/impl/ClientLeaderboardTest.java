@@ -0,0 +1,111 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.request.UpdateClientRequest;
+import com.demo.smartShop.dto.response.ClientDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.service.ClientService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour le classement des meilleurs clients (GET /api/clients/top).
+ */
+@SpringBootTest
+@DisplayName("ClientLeaderboard Tests")
+class ClientLeaderboardTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientLeaderboard leaderboard;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard.rebuild();
+    }
+
+    @Test
+    @DisplayName("Devrait servir le classement de la base sans aller-retour")
+    void shouldServeDatabaseRankingFromMemory() {
+        newClient("Top A", "250.00");
+        newClient("Top B", "250.00");
+        leaderboard.rebuild();
+        int limit = (int) Math.min(activeClients(), 5);
+        List<ClientDTO> expected = clientRepository.findTopProjected(PageRequest.of(0, limit));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ClientDTO> top = clientService.getTopClientsByTotalSpent(limit);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(ids(expected), ids(top));
+    }
+
+    @Test
+    @DisplayName("Devrait classer un client dès la confirmation de sa commande, puis l'oublier à sa suppression")
+    void shouldFollowClientStats() {
+        Client client = newClient("Big Spender", "0");
+        BigDecimal best = clientService.getTopClientsByTotalSpent(1).get(0).getTotalSpent();
+
+        clientService.updateClientStats(client.getId(), best.add(new BigDecimal("1000.00")));
+
+        ClientDTO first = clientService.getTopClientsByTotalSpent(1).get(0);
+        assertEquals(client.getId(), first.getId());
+        assertEquals(1, first.getTotalOrders());
+
+        clientService.updateClient(client.getId(), UpdateClientRequest.builder()
+                .nom("Biggest Spender").email(client.getEmail()).build());
+        assertEquals("Biggest Spender", clientService.getTopClientsByTotalSpent(1).get(0).getNom());
+
+        clientService.deleteClient(client.getId());
+        assertNotEquals(client.getId(), clientService.getTopClientsByTotalSpent(1).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Devrait interroger la base au-delà de la taille du classement")
+    void shouldFallBackToDatabaseAboveBoardSize() {
+        int limit = (int) activeClients() + 10;
+
+        List<ClientDTO> top = clientService.getTopClientsByTotalSpent(limit);
+
+        assertEquals(activeClients(), top.size());
+    }
+
+    // Archived clients are not ranked
+    private long activeClients() {
+        return clientRepository.findAllProjected(Pageable.unpaged()).getTotalElements();
+    }
+
+    private Client newClient(String nom, String totalSpent) {
+        return clientRepository.save(Client.builder()
+                .nom(nom)
+                .email("leaderboard-" + System.nanoTime() + "@test.com")
+                .totalSpent(new BigDecimal(totalSpent))
+                .build());
+    }
+
+    private static List<Long> ids(List<ClientDTO> clients) {
+        return clients.stream().map(ClientDTO::getId).toList();
+    }
+}
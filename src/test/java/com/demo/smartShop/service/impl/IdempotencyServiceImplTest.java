@@ -0,0 +1,169 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.exception.BusinessRuleException;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.IdempotencyRecordRepository;
+import com.demo.smartShop.repository.OrderRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour les clés d'idempotence de création de commande.
+ */
+@SpringBootTest
+@DisplayName("IdempotencyServiceImpl Tests")
+class IdempotencyServiceImplTest {
+
+    private static final String SCOPE = "orders:test";
+
+    @Autowired
+    private IdempotencyServiceImpl idempotencyService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    private Client client;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder()
+                .nom("Idempotency Client")
+                .email("idempotency-" + System.nanoTime() + "@test.com")
+                .build());
+        product = productRepository.save(Product.builder()
+                .nom("Webcam").price(new BigDecimal("45.00")).stock(50).build());
+    }
+
+    @Test
+    @DisplayName("Devrait rejouer la réponse d'origine sans recréer la commande")
+    void shouldReplayOriginalResponse() {
+        String key = newKey();
+        OrderDTO order = order(2);
+        long ordersBefore = orderRepository.count();
+
+        OrderDTO first = create(key, order);
+        OrderDTO retried = create(key, order);
+
+        assertEquals(first.getId(), retried.getId());
+        assertEquals(0, first.getTotalAmount().compareTo(retried.getTotalAmount()));
+        assertEquals(ordersBefore + 1, orderRepository.count());
+        assertEquals(48, stockOf(product));
+    }
+
+    @Test
+    @DisplayName("Devrait rejouer depuis la table après perte du cache mémoire")
+    void shouldReplayFromTableAfterRestart() {
+        String key = newKey();
+        OrderDTO first = create(key, order(1));
+
+        idempotencyService.clearLocalEntries();
+        OrderDTO retried = create(key, order(1));
+
+        assertEquals(first.getId(), retried.getId());
+        assertEquals(49, stockOf(product));
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une clé réutilisée pour une autre requête")
+    void shouldRejectKeyReusedForAnotherRequest() {
+        String key = newKey();
+        create(key, order(1));
+
+        assertThrows(BusinessRuleException.class, () -> create(key, order(3)));
+        assertEquals(49, stockOf(product));
+    }
+
+    @Test
+    @DisplayName("Devrait libérer la clé quand la première requête échoue")
+    void shouldReleaseKeyWhenFirstRequestFails() {
+        String key = newKey();
+        OrderDTO unknownClient = order(1);
+        unknownClient.setClientId(-1L);
+
+        assertThrows(EntityNotFoundException.class, () -> create(key, unknownClient));
+
+        assertFalse(recordRepository.existsById(SCOPE + ":" + key));
+    }
+
+    @Test
+    @DisplayName("Les doublons concurrents devraient attendre la première requête")
+    void shouldMakeConcurrentDuplicatesWait() throws Exception {
+        String key = newKey();
+        long ordersBefore = orderRepository.count();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OrderDTO>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return create(key, order(5));
+            }));
+        }
+        start.countDown();
+        Set<Long> orderIds = new HashSet<>();
+        for (Future<OrderDTO> future : futures) {
+            orderIds.add(future.get(30, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+
+        assertEquals(1, orderIds.size());
+        assertEquals(ordersBefore + 1, orderRepository.count());
+        assertEquals(45, stockOf(product));
+    }
+
+    private OrderDTO create(String key, OrderDTO order) {
+        return idempotencyService.execute(SCOPE, key, order, OrderDTO.class, () -> orderService.createOrder(order));
+    }
+
+    private OrderDTO order(int quantity) {
+        return OrderDTO.builder()
+                .clientId(client.getId())
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(quantity).build()))
+                .build();
+    }
+
+    private String newKey() {
+        return "key-" + System.nanoTime();
+    }
+
+    private int stockOf(Product p) {
+        return productRepository.findById(p.getId()).orElseThrow().getStock();
+    }
+}
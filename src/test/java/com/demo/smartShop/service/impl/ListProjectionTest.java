@@ -0,0 +1,132 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.ClientDTO;
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.PaymentDTO;
+import com.demo.smartShop.dto.response.ProductDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.enums.PaymentStatus;
+import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.PaymentService;
+import com.demo.smartShop.service.ProductService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration des projections DTO des listes (aucune entité chargée).
+ */
+@SpringBootTest
+@DisplayName("List Projection Tests")
+class ListProjectionTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("getAllProducts devrait projeter les produits sans les hydrater")
+    void shouldProjectProducts() {
+        Product product = productRepository.save(Product.builder()
+                .nom("Projecteur").price(new BigDecimal("499.90")).stock(7).build());
+        Statistics statistics = clearedStatistics();
+
+        Page<ProductDTO> page = productService.getAllProducts(PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id")));
+
+        ProductDTO dto = page.getContent().get(0);
+        assertEquals(product.getId(), dto.getId());
+        assertEquals("Projecteur", dto.getNom());
+        assertEquals(0, new BigDecimal("499.90").compareTo(dto.getPrice()));
+        assertEquals(7, dto.getStock());
+        assertFalse(dto.isDeleted());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Le repli SQL du classement devrait trier et limiter en base")
+    void shouldProjectTopClients() {
+        Client top = clientRepository.save(Client.builder()
+                .nom("Top Client")
+                .email("top-" + System.nanoTime() + "@test.com")
+                .totalSpent(new BigDecimal("9999999.00"))
+                .build());
+        Statistics statistics = clearedStatistics();
+
+        // getTopClientsByTotalSpent answers from ClientLeaderboard; this is its database fallback
+        List<ClientDTO> clients = clientRepository.findTopProjected(PageRequest.of(0, 3));
+
+        assertTrue(clients.size() <= 3);
+        assertEquals(top.getId(), clients.get(0).getId());
+        assertEquals(top.getEmail(), clients.get(0).getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("getPaymentsByOrder devrait projeter les paiements dans l'ordre")
+    void shouldProjectPayments() {
+        Client client = clientRepository.save(Client.builder()
+                .nom("Payment Client")
+                .email("projection-" + System.nanoTime() + "@test.com")
+                .build());
+        Product product = productRepository.save(Product.builder()
+                .nom("Tablette").price(new BigDecimal("100.00")).stock(5).build());
+        OrderDTO order = orderService.createOrder(OrderDTO.builder()
+                .clientId(client.getId())
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(1).build()))
+                .build());
+        for (int i = 0; i < 2; i++) {
+            paymentService.addPayment(PaymentDTO.builder()
+                    .orderId(order.getId())
+                    .amount(BigDecimal.TEN)
+                    .type(PaymentType.ESPECES)
+                    .build());
+        }
+        Statistics statistics = clearedStatistics();
+
+        List<PaymentDTO> payments = paymentService.getPaymentsByOrder(order.getId());
+
+        assertEquals(2, payments.size());
+        assertEquals(List.of(1, 2), payments.stream().map(PaymentDTO::getPaymentNumber).toList());
+        assertTrue(payments.stream().allMatch(p -> order.getId().equals(p.getOrderId())
+                && p.getStatus() == PaymentStatus.ENCAISSE));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Statistics clearedStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
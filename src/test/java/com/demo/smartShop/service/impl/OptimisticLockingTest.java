@@ -0,0 +1,149 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.concurrency.ConflictRetrier;
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.PaymentDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.exception.ConflictException;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.OrderRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour le verrouillage optimiste (@Version) et les reprises sur conflit.
+ */
+@SpringBootTest
+@DisplayName("Optimistic Locking Tests")
+class OptimisticLockingTest {
+
+    private static final int PAYMENTS = 4;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ConflictRetrier conflictRetrier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Devrait refuser l'écriture d'une version périmée")
+    void shouldRejectStaleWrite() {
+        Product product = productRepository.save(Product.builder()
+                .nom("Imprimante").price(new BigDecimal("150.00")).stock(10).build());
+        Product first = productRepository.findById(product.getId()).orElseThrow();
+        Product stale = productRepository.findById(product.getId()).orElseThrow();
+
+        first.setStock(9);
+        productRepository.save(first);
+        stale.setStock(8);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productRepository.save(stale));
+        assertEquals(9, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    @DisplayName("Ne devrait perdre aucune annulation de paiement concurrente")
+    void shouldNotLoseConcurrentPaymentCancellations() throws Exception {
+        Client client = clientRepository.save(Client.builder()
+                .nom("Locking Client")
+                .email("locking-" + System.nanoTime() + "@test.com")
+                .build());
+        Product product = productRepository.save(Product.builder()
+                .nom("Scanner").price(new BigDecimal("100.00")).stock(10).build());
+        OrderDTO order = orderService.createOrder(OrderDTO.builder()
+                .clientId(client.getId())
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(4).build()))
+                .build());
+        BigDecimal share = order.getTotalAmount().divide(BigDecimal.valueOf(PAYMENTS));
+        List<Long> paymentIds = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            paymentIds.add(paymentService.addPayment(PaymentDTO.builder()
+                    .orderId(order.getId())
+                    .amount(share)
+                    .type(PaymentType.VIREMENT)
+                    .reference("VIR-" + i)
+                    .bank("Banque Populaire")
+                    .build()).getId());
+        }
+        assertEquals(0, orderRepository.findById(order.getId()).orElseThrow()
+                .getRemainingAmount().compareTo(BigDecimal.ZERO));
+
+        ExecutorService executor = Executors.newFixedThreadPool(PAYMENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger cancelled = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long paymentId : paymentIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                paymentService.cancelPayment(paymentId);
+                cancelled.incrementAndGet();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(PAYMENTS, cancelled.get());
+        assertEquals(0, order.getTotalAmount().compareTo(
+                orderRepository.findById(order.getId()).orElseThrow().getRemainingAmount()));
+    }
+
+    @Test
+    @DisplayName("Devrait répondre 409 et compter les conflits une fois les reprises épuisées")
+    void shouldGiveUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConflictException.class, () -> conflictRetrier.execute("test.alwaysConflicting", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Product.class, 1L);
+        }));
+
+        assertEquals(4, attempts.get());
+        assertEquals(4, meterRegistry.counter("smartshop.concurrency.conflicts",
+                "operation", "test.alwaysConflicting").count());
+        assertEquals(3, meterRegistry.counter("smartshop.concurrency.retries",
+                "operation", "test.alwaysConflicting").count());
+        assertEquals(1, meterRegistry.counter("smartshop.concurrency.retries.exhausted",
+                "operation", "test.alwaysConflicting").count());
+    }
+}
@@ -0,0 +1,153 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.PaymentDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderExportService;
+import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.PaymentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration de l'export des commandes en flux (NDJSON / CSV).
+ */
+@SpringBootTest
+@DisplayName("OrderExportServiceImpl Tests")
+class OrderExportServiceImplTest {
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private LocalDateTime since;
+    private List<OrderDTO> orders;
+
+    @BeforeEach
+    void setUp() {
+        // Chunks of two orders, so three orders span two chunks
+        setFetchSize(2);
+        since = LocalDateTime.now().minusNanos(1000);
+        Client client = clientRepository.save(Client.builder()
+                .nom("Export, \"Client\"")
+                .email("export-" + System.nanoTime() + "@test.com")
+                .build());
+        Product mouse = productRepository.save(Product.builder()
+                .nom("Souris").price(new BigDecimal("20.00")).stock(50).build());
+        Product pad = productRepository.save(Product.builder()
+                .nom("Tapis").price(new BigDecimal("5.00")).stock(50).build());
+        orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orders.add(orderService.createOrder(OrderDTO.builder()
+                    .clientId(client.getId())
+                    .items(List.of(
+                            OrderItemDTO.builder().productId(mouse.getId()).quantity(1).build(),
+                            OrderItemDTO.builder().productId(pad.getId()).quantity(2).build()))
+                    .build()));
+        }
+        paymentService.addPayment(PaymentDTO.builder()
+                .orderId(orders.get(1).getId())
+                .amount(new BigDecimal("12.00"))
+                .type(PaymentType.ESPECES)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        setFetchSize(500);
+    }
+
+    @Test
+    @DisplayName("Devrait écrire une ligne NDJSON par commande avec articles et paiements")
+    void shouldExportNdjson() throws Exception {
+        String[] lines = export(OrderExportService.Format.NDJSON).split("\n");
+
+        assertEquals(3, lines.length);
+        for (int i = 0; i < 3; i++) {
+            JsonNode order = objectMapper.readTree(lines[i]);
+            assertEquals(orders.get(i).getId().longValue(), order.get("id").asLong());
+            assertEquals(2, order.get("items").size());
+        }
+        JsonNode paid = objectMapper.readTree(lines[1]).get("payments");
+        assertEquals(1, paid.size());
+        assertEquals(0, new BigDecimal("12.00").compareTo(paid.get(0).get("amount").decimalValue()));
+    }
+
+    @Test
+    @DisplayName("Devrait écrire une ligne CSV par article avec les champs échappés")
+    void shouldExportCsv() throws Exception {
+        String[] lines = export(OrderExportService.Format.CSV).split("\n");
+
+        assertEquals(1 + 3 * 2, lines.length);
+        assertTrue(lines[0].startsWith("order_id,date,client_id,client_name"));
+        assertTrue(lines[1].startsWith(orders.get(0).getId() + ","));
+        assertTrue(lines[1].contains(",\"Export, \"\"Client\"\"\","));
+        assertTrue(lines[3].endsWith(",1,12.00"));
+    }
+
+    @Test
+    @DisplayName("Devrait compléter chaque lot en deux requêtes sans charger d'entité")
+    void shouldCompleteChunksWithoutHydration() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        export(OrderExportService.Format.NDJSON);
+
+        // Cursor, then items and payments for each of the two chunks
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private void setFetchSize(int fetchSize) {
+        OrderExportServiceImpl target = AopTestUtils.getTargetObject(orderExportService);
+        ReflectionTestUtils.setField(target, "fetchSize", fetchSize);
+    }
+
+    private String export(OrderExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportOrders(since, null, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
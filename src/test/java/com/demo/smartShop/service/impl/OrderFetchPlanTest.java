@@ -0,0 +1,113 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration du plan de chargement des commandes (pas de N+1 dans OrderMapper.toDTO).
+ */
+@SpringBootTest
+@DisplayName("Order Fetch Plan Tests")
+class OrderFetchPlanTest {
+
+    private static final int ORDERS = 12;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Client client;
+    private List<OrderDTO> orders;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder()
+                .nom("Fetch Client")
+                .email("fetch-" + System.nanoTime() + "@test.com")
+                .build());
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            products.add(productRepository.save(Product.builder()
+                    .nom("Article " + i).price(new BigDecimal("12.50")).stock(1000).build()));
+        }
+        orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(orderService.createOrder(OrderDTO.builder()
+                    .clientId(client.getId())
+                    .items(List.of(
+                            OrderItemDTO.builder().productId(products.get(i % 4).getId()).quantity(1).build(),
+                            OrderItemDTO.builder().productId(products.get((i + 1) % 4).getId()).quantity(2).build()))
+                    .build()));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("getAllOrders devrait charger une page complète en trois requêtes")
+    void getAllOrdersShouldUseBoundedStatements() {
+        Page<OrderDTO> page = orderService.getAllOrders(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertEquals(20, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(order -> order.getClientName() != null
+                && order.getItems().stream().allMatch(item -> item.getProductName() != null)));
+        // Projected headers, count, then the lines of the page; no entity is hydrated
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("getOrdersByClientId devrait garder l'ordre de la page sans N+1")
+    void getOrdersByClientIdShouldKeepPageOrder() {
+        Page<OrderDTO> page = orderService.getOrdersByClientId(client.getId(),
+                PageRequest.of(1, 5, Sort.by(Sort.Direction.ASC, "id")));
+
+        assertEquals(ORDERS, page.getTotalElements());
+        assertEquals(orders.subList(5, 10).stream().map(OrderDTO::getId).toList(),
+                page.getContent().stream().map(OrderDTO::getId).toList());
+        assertTrue(page.getContent().stream().allMatch(order -> order.getItems().size() == 2));
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("getOrderById devrait tout charger en une seule requête")
+    void getOrderByIdShouldUseSingleStatement() {
+        OrderDTO order = orderService.getOrderById(orders.get(0).getId());
+
+        assertEquals("Fetch Client", order.getClientName());
+        assertEquals(2, order.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
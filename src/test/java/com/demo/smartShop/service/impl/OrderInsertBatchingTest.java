@@ -0,0 +1,81 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.enums.OrderStatus;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mesure le nombre d'instructions JDBC préparées pour une commande de 50 lignes.
+ *
+ * Avec des identifiants IDENTITY, chaque ligne coûte son propre INSERT (plus de
+ * 150 instructions pour la commande, ses lignes et ses réservations). Avec des
+ * séquences "pooled" et le batching JDBC, ces INSERT sont regroupés en quelques lots.
+ */
+@SpringBootTest
+@DisplayName("Order insert batching benchmark")
+class OrderInsertBatchingTest {
+
+    private static final int LINES = 50;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Une commande de 50 lignes devrait tenir en une poignée de lots JDBC")
+    void shouldCollapseInsertsIntoBatches() {
+        Client client = clientRepository.save(Client.builder()
+                .nom("Batching Client")
+                .email("batching-" + System.nanoTime() + "@test.com")
+                .build());
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            products.add(Product.builder().nom("Produit " + i).price(new BigDecimal("9.99")).stock(100).build());
+        }
+        products = productRepository.saveAll(products);
+
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (Product product : products) {
+            items.add(OrderItemDTO.builder().productId(product.getId()).quantity(1).build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        OrderDTO order = orderService.createOrder(OrderDTO.builder().clientId(client.getId()).items(items).build());
+
+        long statements = statistics.getPrepareStatementCount();
+        long inserts = statistics.getEntityInsertCount();
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        // 1 order + 50 items + 50 reservations
+        assertEquals(1 + 2 * LINES, inserts);
+        // client + locked products + a few sequence calls + one batch per table
+        assertTrue(statements <= 12, "Expected a handful of JDBC statements, got " + statements);
+    }
+}
@@ -0,0 +1,123 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.CursorPageDTO;
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Order;
+import com.demo.smartShop.exception.ValidationException;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.OrderRepository;
+import com.demo.smartShop.service.OrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour la pagination par curseur (keyset) des commandes.
+ */
+@SpringBootTest
+@DisplayName("Order Keyset Pagination Tests")
+class OrderKeysetPaginationTest {
+
+    private static final int ORDERS = 25;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Client client;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder()
+                .nom("Keyset Client")
+                .email("keyset-" + System.nanoTime() + "@test.com")
+                .build());
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Order> toSave = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            // Three orders per timestamp so that ties must be broken on the id
+            toSave.add(Order.builder()
+                    .client(client)
+                    .date(base.minusMinutes(i / 3))
+                    .subTotal(BigDecimal.TEN)
+                    .totalAmount(BigDecimal.TEN)
+                    .remainingAmount(BigDecimal.TEN)
+                    .build());
+        }
+        orders = orderRepository.saveAll(toSave);
+    }
+
+    @Test
+    @DisplayName("Devrait parcourir toutes les commandes du client sans doublon, du plus récent au plus ancien")
+    void shouldWalkAllPagesInOrder() {
+        List<Long> expected = orders.stream()
+                .sorted(Comparator.comparing(Order::getDate).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .collect(Collectors.toList());
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<OrderDTO> page = orderService.getOrdersByClientIdAfter(client.getId(), cursor, 10);
+            page.getContent().forEach(order -> seen.add(order.getId()));
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(expected, seen);
+        assertEquals(ORDERS, new HashSet<>(seen).size());
+    }
+
+    @Test
+    @DisplayName("Ne devrait exécuter aucune requête de comptage")
+    void shouldNotRunCountQuery() {
+        CursorPageDTO<OrderDTO> first = orderService.getOrdersAfter(null, 5);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CursorPageDTO<OrderDTO> second = orderService.getOrdersAfter(first.getNextCursor(), 5);
+
+        assertEquals(5, second.getSize());
+        // Ids of the page, then the orders with their graph; never a count
+        assertEquals(2, statistics.getQueryExecutionCount());
+        assertTrue(second.getContent().stream()
+                .noneMatch(order -> first.getContent().stream().anyMatch(o -> o.getId().equals(order.getId()))));
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un curseur invalide ou une taille hors limites")
+    void shouldRejectInvalidCursorOrSize() {
+        assertThrows(ValidationException.class, () -> orderService.getOrdersAfter("not-a-cursor", 10));
+        assertThrows(ValidationException.class, () -> orderService.getOrdersAfter(null, 0));
+        assertThrows(ValidationException.class, () -> orderService.getOrdersAfter(null, 101));
+    }
+}
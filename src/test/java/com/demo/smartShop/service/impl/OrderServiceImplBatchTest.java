@@ -0,0 +1,139 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderBatchResultDTO;
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.OrderRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration pour l'ingestion de commandes en lot (POST /api/orders/batch).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("OrderServiceImpl Batch Tests")
+class OrderServiceImplBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Test
+    @DisplayName("Devrait retourner un résultat par commande avec les mêmes règles que createOrder")
+    void shouldReportOneResultPerOrder() {
+        Client client = clientRepository.save(Client.builder()
+                .nom("ERP Client")
+                .email("erp-" + System.nanoTime() + "@test.com")
+                .build());
+        Product product = productRepository.save(Product.builder()
+                .nom("Ecran").price(new BigDecimal("100.00")).stock(250).build());
+
+        List<OrderDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            batch.add(order(client.getId(), product.getId(), 2));
+        }
+        batch.add(order(client.getId(), product.getId(), 1000)); // insufficient stock
+        batch.add(order(-1L, product.getId(), 1));                // unknown client
+        batch.add(order(client.getId(), -1L, 1));                 // unknown product
+        batch.add(order(client.getId(), product.getId(), 0));     // invalid quantity
+
+        long ordersBefore = orderRepository.count();
+        List<OrderBatchResultDTO> results = orderService.createOrders(batch.iterator());
+
+        assertEquals(batch.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals(120, results.stream()
+                .filter(r -> r.getOutcome() == OrderBatchResultDTO.Outcome.CREATED).count());
+        assertEquals(OrderBatchResultDTO.Outcome.REJECTED, results.get(120).getOutcome());
+        assertEquals(OrderBatchResultDTO.Outcome.FAILED, results.get(121).getOutcome());
+        assertEquals(OrderBatchResultDTO.Outcome.FAILED, results.get(122).getOutcome());
+        assertEquals(OrderBatchResultDTO.Outcome.FAILED, results.get(123).getOutcome());
+
+        // 2 x 100.00 = 200.00, TVA 20% on a BASIC client: 240.00
+        assertEquals(0, new BigDecimal("240.00").compareTo(results.get(0).getTotalAmount()));
+        assertEquals(ordersBefore + 121, orderRepository.count());
+        assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    @DisplayName("Devrait signaler une commande illisible en FAILED sans interrompre le lot")
+    void shouldReportUnreadableOrderAndGoOn() throws Exception {
+        Client client = clientRepository.save(Client.builder()
+                .nom("NDJSON Client")
+                .email("ndjson-" + System.nanoTime() + "@test.com")
+                .build());
+        Product product = productRepository.save(Product.builder()
+                .nom("Clavier").price(new BigDecimal("50.00")).stock(10).build());
+        String valid = "{\"clientId\":" + client.getId() + ",\"items\":[{\"productId\":" + product.getId()
+                + ",\"quantity\":1}]}";
+        String unbindable = "{\"clientId\":\"abc\",\"items\":[]}";
+
+        mockMvc.perform(post("/api/orders/batch").session(adminSession())
+                        .contentType("application/x-ndjson")
+                        .content(valid + "\n" + unbindable + "\n" + valid + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].outcome").value("FAILED"))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].outcome").value("CREATED"));
+
+        // After a syntax error the rest of the body cannot be delimited: reported, then reading stops
+        mockMvc.perform(post("/api/orders/batch").session(adminSession())
+                        .contentType("application/x-ndjson")
+                        .content(valid + "\n{\"clientId\": ]\n" + valid + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$[1].outcome").value("FAILED"));
+
+        assertEquals(7, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    private MockHttpSession adminSession() {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("USER_ID", 1L);
+        session.setAttribute("USER_ROLE", "ADMIN");
+        return session;
+    }
+
+    private OrderDTO order(Long clientId, Long productId, int quantity) {
+        return OrderDTO.builder()
+                .clientId(clientId)
+                .items(List.of(OrderItemDTO.builder().productId(productId).quantity(quantity).build()))
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.enums.OrderStatus;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de charge concurrente sur la réservation de stock de createOrder / cancelOrder.
+ *
+ * Plusieurs threads passent des commandes croisées (A puis B, B puis A) sur les
+ * mêmes produits : aucune mise à jour ne doit être perdue, le stock ne doit
+ * jamais devenir négatif et aucun interblocage ne doit survenir.
+ */
+@SpringBootTest
+@DisplayName("OrderServiceImpl Concurrency Tests")
+class OrderServiceImplConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 15;
+    private static final int INITIAL_STOCK = 150;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private Client client;
+    private Product productA;
+    private Product productB;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder()
+                .nom("Stress Client")
+                .email("stress-" + System.nanoTime() + "@test.com")
+                .build());
+        productA = productRepository.save(Product.builder()
+                .nom("Produit A").price(new BigDecimal("10.00")).stock(INITIAL_STOCK).build());
+        productB = productRepository.save(Product.builder()
+                .nom("Produit B").price(new BigDecimal("25.50")).stock(INITIAL_STOCK).build());
+    }
+
+    @Test
+    @DisplayName("Ne devrait perdre aucune mise à jour de stock sous commandes concurrentes")
+    void shouldNotLoseStockUpdatesUnderConcurrentOrders() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<Long, int[]> reservedByOrder = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final boolean reversed = t % 2 == 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    int quantityA = 1 + (i % 3);
+                    int quantityB = 2;
+                    OrderDTO created = orderService.createOrder(cart(reversed, quantityA, quantityB));
+                    if (created.getStatus() == OrderStatus.REJECTED) {
+                        rejected.incrementAndGet();
+                    } else {
+                        reservedByOrder.put(created.getId(), new int[] { quantityA, quantityB });
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+
+        // Cancel half of the pending orders concurrently to exercise the restore path
+        List<Long> toCancel = reservedByOrder.keySet().stream().filter(id -> id % 2 == 0).toList();
+        List<Future<?>> cancellations = new ArrayList<>();
+        for (Long orderId : toCancel) {
+            cancellations.add(executor.submit(() -> orderService.cancelOrder(orderId)));
+        }
+        for (Future<?> future : cancellations) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        toCancel.forEach(reservedByOrder::remove);
+
+        int reservedA = reservedByOrder.values().stream().mapToInt(q -> q[0]).sum();
+        int reservedB = reservedByOrder.values().stream().mapToInt(q -> q[1]).sum();
+        Product finalA = productRepository.findById(productA.getId()).orElseThrow();
+        Product finalB = productRepository.findById(productB.getId()).orElseThrow();
+
+        assertEquals(INITIAL_STOCK - reservedA, finalA.getStock());
+        assertEquals(INITIAL_STOCK - reservedB, finalB.getStock());
+        assertTrue(finalA.getStock() >= 0);
+        assertTrue(finalB.getStock() >= 0);
+        // 8 x 15 orders ask for 240 units of B out of 150: some must have been rejected
+        assertTrue(rejected.get() > 0);
+    }
+
+    private OrderDTO cart(boolean reversed, int quantityA, int quantityB) {
+        OrderItemDTO lineA = OrderItemDTO.builder().productId(productA.getId()).quantity(quantityA).build();
+        OrderItemDTO lineB = OrderItemDTO.builder().productId(productB.getId()).quantity(quantityB).build();
+        return OrderDTO.builder()
+                .clientId(client.getId())
+                .items(reversed ? List.of(lineB, lineA) : List.of(lineA, lineB))
+                .build();
+    }
+}
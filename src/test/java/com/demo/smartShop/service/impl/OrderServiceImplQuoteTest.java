@@ -0,0 +1,129 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.request.CreateOrderRequest;
+import com.demo.smartShop.dto.request.OrderItemRequest;
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.OrderPricingDTO;
+import com.demo.smartShop.dto.response.ProductDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.enums.CustomerTier;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.OrderRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.ProductService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour le devis de panier (POST /api/orders/quote).
+ */
+@SpringBootTest
+@DisplayName("OrderServiceImpl Quote Tests")
+class OrderServiceImplQuoteTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Client client;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder()
+                .nom("Quote Client")
+                .email("quote-" + System.nanoTime() + "@test.com")
+                .tier(CustomerTier.GOLD)
+                .build());
+        product = productRepository.save(Product.builder()
+                .nom("Casque").price(new BigDecimal("333.33")).stock(5).build());
+    }
+
+    @Test
+    @DisplayName("Devrait donner les mêmes montants que createOrder sans rien écrire")
+    void shouldMatchCreateOrderWithoutWriting() {
+        long ordersBefore = orderRepository.count();
+
+        OrderPricingDTO quote = orderService.quoteOrder(quote(3, "PROMO-AB12"));
+
+        assertEquals(ordersBefore, orderRepository.count());
+        assertEquals(5, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertTrue(quote.getStockAvailable());
+        // 999.99 x (10% GOLD + 5% promo)
+        assertEquals(new BigDecimal("100.00"), quote.getLoyaltyDiscountAmount());
+        assertEquals(new BigDecimal("50.00"), quote.getPromoDiscountAmount());
+
+        OrderDTO order = orderService.createOrder(OrderDTO.builder()
+                .clientId(client.getId())
+                .promoCode("PROMO-AB12")
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(3).build()))
+                .build());
+
+        assertEquals(0, order.getDiscountAmount().compareTo(quote.getDiscountAmount()));
+        assertEquals(0, order.getTaxAmount().compareTo(quote.getTaxAmount()));
+        assertEquals(0, order.getTotalAmount().compareTo(quote.getTotalAmount()));
+    }
+
+    @Test
+    @DisplayName("Ne devrait faire aucun aller-retour base de données une fois le snapshot chaud")
+    void shouldNotHitDatabaseWhenSnapshotIsWarm() {
+        orderService.quoteOrder(quote(1, null));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 1; i <= 5; i++) {
+            orderService.quoteOrder(quote(i, null));
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Devrait refléter une mise à jour du produit et signaler le stock insuffisant")
+    void shouldReflectProductUpdate() {
+        orderService.quoteOrder(quote(1, null));
+
+        productService.updateProduct(product.getId(), ProductDTO.builder()
+                .nom("Casque").price(new BigDecimal("10.00")).stock(2).build());
+        OrderPricingDTO quote = orderService.quoteOrder(quote(3, null));
+
+        assertEquals(new BigDecimal("30.00"), quote.getSubTotal());
+        assertFalse(quote.getStockAvailable());
+    }
+
+    private CreateOrderRequest quote(int quantity, String promoCode) {
+        return CreateOrderRequest.builder()
+                .clientId(client.getId())
+                .promoCode(promoCode)
+                .items(List.of(OrderItemRequest.builder().productId(product.getId()).quantity(quantity).build()))
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.PaymentDTO;
+import com.demo.smartShop.dto.response.PaymentTypeReportDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.exception.ValidationException;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.PaymentService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration du rapport des commandes par type de paiement (agrégation SQL).
+ */
+@SpringBootTest
+@DisplayName("Payment Type Report Tests")
+class PaymentTypeReportTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private LocalDateTime from;
+    private OrderDTO cashAndCheque;
+    private OrderDTO cashTwice;
+
+    @BeforeEach
+    void setUp() {
+        from = LocalDateTime.now().minusNanos(1000);
+        Client client = clientRepository.save(Client.builder()
+                .nom("Report Client")
+                .email("report-" + System.nanoTime() + "@test.com")
+                .build());
+        Product product = productRepository.save(Product.builder()
+                .nom("Clavier").price(new BigDecimal("100.00")).stock(20).build());
+        cashAndCheque = order(client, product);
+        cashTwice = order(client, product);
+
+        pay(cashAndCheque, PaymentType.ESPECES, "30.00");
+        pay(cashAndCheque, PaymentType.CHEQUE, "20.00");
+        pay(cashTwice, PaymentType.ESPECES, "10.00");
+        pay(cashTwice, PaymentType.ESPECES, "15.00");
+    }
+
+    @Test
+    @DisplayName("Devrait compter et sommer les paiements avec des commandes distinctes par type")
+    void shouldAggregatePerType() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<PaymentType, PaymentTypeReportDTO> report = orderService.getOrdersGroupedByPaymentType(
+                from, null, PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(2, report.size());
+        PaymentTypeReportDTO cash = report.get(PaymentType.ESPECES);
+        assertEquals(3, cash.getPaymentCount());
+        assertEquals(0, new BigDecimal("55.00").compareTo(cash.getTotalAmount()));
+        assertEquals(2, cash.getOrderCount());
+        assertEquals(List.of(cashAndCheque.getId(), cashTwice.getId()),
+                cash.getOrders().getContent().stream().map(OrderDTO::getId).toList());
+        PaymentTypeReportDTO cheque = report.get(PaymentType.CHEQUE);
+        assertEquals(1, cheque.getOrderCount());
+        assertEquals(1, cheque.getOrders().getContent().get(0).getItems().size());
+        // Totals, one page per type, then the lines of every page
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Devrait paginer les commandes de chaque type")
+    void shouldPageOrdersPerType() {
+        PaymentTypeReportDTO cash = orderService.getOrdersGroupedByPaymentType(
+                from, null, PageRequest.of(1, 1, Sort.by("id"))).get(PaymentType.ESPECES);
+
+        assertEquals(2, cash.getOrders().getTotalElements());
+        assertEquals(2, cash.getOrders().getTotalPages());
+        assertEquals(cashTwice.getId(), cash.getOrders().getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Devrait paginer sans tri demandé dans un ordre stable, plus récentes d'abord")
+    void shouldPageUnsortedOrdersDeterministically() {
+        PaymentTypeReportDTO first = orderService.getOrdersGroupedByPaymentType(
+                from, null, PageRequest.of(0, 1)).get(PaymentType.ESPECES);
+        PaymentTypeReportDTO second = orderService.getOrdersGroupedByPaymentType(
+                from, null, PageRequest.of(1, 1)).get(PaymentType.ESPECES);
+
+        assertEquals(cashTwice.getId(), first.getOrders().getContent().get(0).getId());
+        assertEquals(cashAndCheque.getId(), second.getOrders().getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Devrait filtrer par période et refuser une période vide")
+    void shouldFilterByDateRange() {
+        assertTrue(orderService.getOrdersGroupedByPaymentType(null, from, PageRequest.of(0, 10))
+                .values().stream()
+                .flatMap(group -> group.getOrders().getContent().stream())
+                .noneMatch(order -> order.getId().equals(cashTwice.getId())));
+        assertThrows(ValidationException.class,
+                () -> orderService.getOrdersGroupedByPaymentType(from, from, PageRequest.of(0, 10)));
+    }
+
+    private OrderDTO order(Client client, Product product) {
+        return orderService.createOrder(OrderDTO.builder()
+                .clientId(client.getId())
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(1).build()))
+                .build());
+    }
+
+    private void pay(OrderDTO order, PaymentType type, String amount) {
+        paymentService.addPayment(PaymentDTO.builder()
+                .orderId(order.getId())
+                .amount(new BigDecimal(amount))
+                .type(type)
+                .reference("REF-" + System.nanoTime())
+                .bank("CIH")
+                .dueDate(LocalDateTime.now().plusDays(30))
+                .build());
+    }
+}
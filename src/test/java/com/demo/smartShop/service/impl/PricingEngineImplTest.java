@@ -0,0 +1,120 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.benchmark.LegacyPricing;
+import com.demo.smartShop.dto.response.OrderPricingDTO;
+import com.demo.smartShop.entity.enums.CustomerTier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour PricingEngineImpl
+ *
+ * Les montants calculés doivent être identiques à ceux de l'ancien calcul
+ * BigDecimal de createOrder (LegacyPricing), arrondis compris.
+ */
+@DisplayName("PricingEngineImpl Tests")
+class PricingEngineImplTest {
+
+    private static final BigDecimal TVA_RATE = new BigDecimal("0.20");
+
+    private final PricingEngineImpl pricingEngine = new PricingEngineImpl(TVA_RATE);
+
+    @Nested
+    @DisplayName("Tests de remise")
+    class DiscountTests {
+
+        @Test
+        @DisplayName("Devrait appliquer la remise fidélité au seuil exact du palier")
+        void shouldApplyTierDiscountAtThreshold() {
+            OrderPricingDTO pricing = pricingEngine.price(new BigDecimal("800.00"), CustomerTier.GOLD, null);
+
+            assertAmount("80.00", pricing.getDiscountAmount());
+            assertAmount("144.00", pricing.getTaxAmount());
+            assertAmount("864.00", pricing.getTotalAmount());
+        }
+
+        @Test
+        @DisplayName("Ne devrait pas appliquer de remise fidélité sous le seuil")
+        void shouldNotApplyTierDiscountBelowThreshold() {
+            OrderPricingDTO pricing = pricingEngine.price(new BigDecimal("1199.99"), CustomerTier.PLATINUM, null);
+
+            assertAmount("0.00", pricing.getDiscountAmount());
+        }
+
+        @Test
+        @DisplayName("Devrait cumuler remise fidélité et code promo")
+        void shouldCumulateTierAndPromoDiscount() {
+            OrderPricingDTO pricing = pricingEngine.price(new BigDecimal("500.00"), CustomerTier.SILVER, "PROMO-AB12");
+
+            assertAmount("50.00", pricing.getDiscountAmount());
+        }
+
+        @Test
+        @DisplayName("Devrait ignorer un code promo mal formé")
+        void shouldIgnoreMalformedPromoCode() {
+            assertFalse(pricingEngine.isPromoCodeFormatValid("PROMO-ab12"));
+            assertFalse(pricingEngine.isPromoCodeFormatValid("PROMO-AB123"));
+            assertFalse(pricingEngine.isPromoCodeFormatValid("promo-AB12"));
+            assertTrue(pricingEngine.isPromoCodeFormatValid("PROMO-9Z9Z"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests de parité avec l'ancien calcul")
+    class ParityTests {
+
+        @Test
+        @DisplayName("Devrait produire les mêmes montants que l'ancien calcul BigDecimal")
+        void shouldMatchLegacyPricing() {
+            Random random = new Random(7);
+            String[] promoCodes = { null, "PROMO-AB12", "PROMO-ab12", "" };
+
+            for (int i = 0; i < 20_000; i++) {
+                BigDecimal subTotal = BigDecimal.valueOf(random.nextInt(3_000_00), random.nextInt(3));
+                CustomerTier tier = CustomerTier.values()[random.nextInt(CustomerTier.values().length)];
+                String promoCode = promoCodes[random.nextInt(promoCodes.length)];
+
+                assertSamePricing(LegacyPricing.price(subTotal, tier, promoCode, TVA_RATE),
+                        pricingEngine.price(subTotal, tier, promoCode));
+            }
+        }
+
+        @Test
+        @DisplayName("Devrait rester identique hors du chemin en centimes")
+        void shouldMatchLegacyPricingOnBigDecimalFallback() {
+            PricingEngineImpl oddRate = new PricingEngineImpl(new BigDecimal("0.196"));
+            BigDecimal[] subTotals = {
+                    new BigDecimal("1234.5678"),
+                    new BigDecimal("92233720368547758.07"),
+                    new BigDecimal("1E+3"),
+                    new BigDecimal("0.005")
+            };
+
+            for (BigDecimal subTotal : subTotals) {
+                for (CustomerTier tier : CustomerTier.values()) {
+                    assertSamePricing(LegacyPricing.price(subTotal, tier, "PROMO-AB12", TVA_RATE),
+                            pricingEngine.price(subTotal, tier, "PROMO-AB12"));
+                    assertSamePricing(LegacyPricing.price(subTotal, tier, null, new BigDecimal("0.196")),
+                            oddRate.price(subTotal, tier, null));
+                }
+            }
+        }
+    }
+
+    private static void assertSamePricing(OrderPricingDTO expected, OrderPricingDTO actual) {
+        String context = "subTotal=" + expected.getSubTotal();
+        assertEquals(expected.getDiscountAmount(), actual.getDiscountAmount(), context);
+        assertEquals(expected.getTaxAmount(), actual.getTaxAmount(), context);
+        assertEquals(expected.getTotalAmount(), actual.getTotalAmount(), context);
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(new BigDecimal(expected), actual);
+    }
+}
@@ -0,0 +1,155 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.ProductDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour le cache du catalogue produits et son invalidation.
+ */
+@SpringBootTest
+@DisplayName("ProductCatalogCache Tests")
+class ProductCatalogCacheTest {
+
+    private static final Pageable NEWEST = PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id"));
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ProductDTO product;
+
+    @BeforeEach
+    void setUp() {
+        product = productService.createProduct(ProductDTO.builder()
+                .nom("Routeur").price(new BigDecimal("89.00")).stock(20).build());
+    }
+
+    @Test
+    @DisplayName("Ne devrait faire aucun aller-retour base de données une fois le cache chaud")
+    void shouldServeWarmCacheWithoutDatabase() {
+        productService.getProductById(product.getId());
+        productService.getAllProducts(NEWEST);
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", "catalog.products")
+                .tag("result", "hit").functionCounter().count();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Routeur", productService.getProductById(product.getId()).getNom());
+            assertEquals(product.getId(), productService.getAllProducts(NEWEST).getContent().get(0).getId());
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(hitsBefore + 5, meterRegistry.get("cache.gets").tag("cache", "catalog.products")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Devrait refléter une mise à jour ou une suppression du produit")
+    void shouldEvictOnUpdateAndDelete() {
+        productService.getProductById(product.getId());
+        productService.getAllProducts(NEWEST);
+
+        productService.updateProduct(product.getId(), ProductDTO.builder()
+                .nom("Routeur Wi-Fi 6").price(new BigDecimal("99.00")).stock(15).build());
+
+        assertEquals("Routeur Wi-Fi 6", productService.getProductById(product.getId()).getNom());
+        assertEquals(15, productService.getAllProducts(NEWEST).getContent().get(0).getStock());
+
+        productService.deleteProduct(product.getId());
+
+        assertTrue(productService.getProductById(product.getId()).isDeleted());
+        assertTrue(productService.getAllProducts(NEWEST).getContent().get(0).isDeleted());
+    }
+
+    @Test
+    @DisplayName("Devrait refléter le stock réservé puis restitué par une commande")
+    void shouldEvictOnOrderStockChanges() {
+        Client client = clientRepository.save(Client.builder()
+                .nom("Catalog Client")
+                .email("catalog-" + System.nanoTime() + "@test.com")
+                .build());
+        productService.getProductById(product.getId());
+        productService.getAllProducts(NEWEST);
+
+        OrderDTO order = orderService.createOrder(OrderDTO.builder()
+                .clientId(client.getId())
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(3).build()))
+                .build());
+
+        assertEquals(17, productService.getProductById(product.getId()).getStock());
+        assertEquals(17, productService.getAllProducts(NEWEST).getContent().get(0).getStock());
+
+        orderService.cancelOrder(order.getId());
+
+        assertEquals(20, productService.getProductById(product.getId()).getStock());
+        assertEquals(20, productService.getAllProducts(NEWEST).getContent().get(0).getStock());
+    }
+
+    @Test
+    @DisplayName("Devrait afficher un nouveau produit dans les pages en cache")
+    void shouldEvictPagesOnCreate() {
+        productService.getAllProducts(NEWEST);
+
+        ProductDTO created = productService.createProduct(ProductDTO.builder()
+                .nom("Switch").price(new BigDecimal("39.00")).stock(4).build());
+
+        assertEquals(created.getId(), productService.getAllProducts(NEWEST).getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Devrait servir une page avec l'ETag lu en même temps qu'elle")
+    void shouldKeepPageAndETagTogether() {
+        ProductService.CatalogPage before = productService.getCatalogPage(NEWEST);
+
+        productService.updateProduct(product.getId(), ProductDTO.builder()
+                .nom("Routeur").price(new BigDecimal("79.00")).stock(20).build());
+        ProductService.CatalogPage after = productService.getCatalogPage(NEWEST);
+        assertNotEquals(before.eTag(), after.eTag());
+        assertEquals(0, new BigDecimal("79.00").compareTo(after.page().getContent().get(0).getPrice()));
+
+        // A load that raced with the change and was stored after its eviction keeps its own ETag
+        productService.updateProduct(product.getId(), ProductDTO.builder()
+                .nom("Routeur").price(new BigDecimal("69.00")).stock(20).build());
+        catalogCache.page(NEWEST, () -> after);
+        ProductService.CatalogPage served = productService.getCatalogPage(NEWEST);
+        assertEquals(after.eTag(), served.eTag());
+        assertSame(after.page(), served.page());
+    }
+}
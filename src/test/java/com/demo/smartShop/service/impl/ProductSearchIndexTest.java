@@ -0,0 +1,104 @@
+package com.demo.smartShop.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour l'index de recherche produits.
+ */
+@DisplayName("ProductSearchIndex Tests")
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.put(1, 0, "Cafetière à piston", "Cafetière en verre, 8 tasses", false);
+        index.put(2, 0, "Théière en fonte", "Idéale pour le thé vert", false);
+        index.put(3, 0, "Tasse à café", "Porcelaine, lot de 6 tasses", false);
+        index.put(4, 0, "Machine à expresso", "Prépare un café serré ou allongé", false);
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer les accents et la casse")
+    void shouldFoldAccentsAndCase() {
+        assertEquals(List.of(1L), index.search("CAFETIERE", 0, 10).productIds());
+        assertEquals(List.of(2L), index.search("théiére", 0, 10).productIds());
+        assertEquals(List.of("oeuf", "coque"), ProductSearchIndex.analyze("Œuf à la coque"));
+    }
+
+    @Test
+    @DisplayName("Devrait trouver par préfixe en classant les correspondances exactes du nom en premier")
+    void shouldMatchPrefixesAndRankNameMatchesFirst() {
+        ProductSearchIndex.Hits hits = index.search("caf", 0, 10);
+
+        assertEquals(3, hits.total());
+        assertTrue(hits.productIds().containsAll(List.of(1L, 3L, 4L)));
+
+        // Exact word in the name of 3, prefix of a name word of 1, only in the description of 4
+        assertEquals(List.of(3L, 1L, 4L), index.search("café", 0, 10).productIds());
+    }
+
+    @Test
+    @DisplayName("Devrait exiger chaque mot de la requête")
+    void shouldRequireEveryToken() {
+        assertEquals(List.of(1L, 3L), index.search("tasses", 0, 10).productIds());
+        assertEquals(List.of(3L), index.search("tass porcel", 0, 10).productIds());
+        assertTrue(index.search("tasse inconnu", 0, 10).productIds().isEmpty());
+        assertTrue(index.search("de la", 0, 10).productIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Devrait paginer les résultats classés")
+    void shouldPaginate() {
+        List<Long> all = index.search("caf", 0, 10).productIds();
+
+        ProductSearchIndex.Hits second = index.search("caf", 1, 1);
+
+        assertEquals(3, second.total());
+        assertEquals(List.of(all.get(1)), second.productIds());
+        assertTrue(index.search("caf", 5, 2).productIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Devrait réindexer, retirer les produits supprimés et ignorer une version plus ancienne")
+    void shouldApplyUpdatesByVersion() {
+        index.put(2, 1, "Bouilloire", null, false);
+        assertTrue(index.search("theiere", 0, 10).productIds().isEmpty());
+        assertEquals(List.of(2L), index.search("bouil", 0, 10).productIds());
+
+        index.put(2, 2, "Bouilloire", null, true);
+        assertTrue(index.search("bouilloire", 0, 10).productIds().isEmpty());
+
+        index.put(2, 1, "Bouilloire", null, false);
+        assertTrue(index.search("bouilloire", 0, 10).productIds().isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Devrait borner un préfixe court à ses mots les plus fréquents et estimer le total")
+    void shouldBoundPrefixExpansionToMostFrequentWords() {
+        for (int i = 0; i < 100; i++) {
+            index.put(100 + i, 0, String.format("Orb%03d", i), "Accessoire", false);
+        }
+        // "orbite" sorts after the hundred "orb..." words but is the most frequent
+        for (int i = 0; i < 5; i++) {
+            index.put(500 + i, 0, "Orbite lunaire", null, false);
+        }
+
+        ProductSearchIndex.Hits hits = index.search("orb", 0, 200);
+        assertTrue(hits.productIds().containsAll(List.of(500L, 501L, 502L, 503L, 504L)));
+        assertTrue(hits.productIds().size() < 105);
+        assertEquals(105, hits.total());
+        assertEquals(5, index.search("orb lunaire", 0, 10).total());
+
+        // Two letters only match a whole word
+        assertTrue(index.search("ca", 0, 10).productIds().isEmpty());
+    }
+}
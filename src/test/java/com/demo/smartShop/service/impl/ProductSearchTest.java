@@ -0,0 +1,53 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.ProductDTO;
+import com.demo.smartShop.exception.ValidationException;
+import com.demo.smartShop.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour la recherche produits (GET /api/products/search).
+ */
+@SpringBootTest
+@DisplayName("Product Search Tests")
+class ProductSearchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    @DisplayName("Devrait suivre la création, la mise à jour et la suppression des produits")
+    void shouldFollowCatalogChanges() {
+        String word = "zephyr" + System.nanoTime();
+        ProductDTO product = productService.createProduct(ProductDTO.builder()
+                .nom("Enceinte " + word).price(new BigDecimal("59.00")).stock(3).build());
+
+        Page<ProductDTO> page = productService.searchProducts("enceinte " + word.substring(0, 8), PageRequest.of(0, 10));
+        assertEquals(1, page.getTotalElements());
+        assertEquals(product.getId(), page.getContent().get(0).getId());
+        assertEquals(3, page.getContent().get(0).getStock());
+
+        productService.updateProduct(product.getId(), ProductDTO.builder()
+                .nom("Haut-parleur " + word).price(new BigDecimal("59.00")).stock(3).build());
+        assertTrue(productService.searchProducts("enceinte " + word, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, productService.searchProducts("haut parleur " + word, PageRequest.of(0, 10)).getTotalElements());
+
+        productService.deleteProduct(product.getId());
+        assertTrue(productService.searchProducts(word, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une requête vide")
+    void shouldRejectBlankQuery() {
+        assertThrows(ValidationException.class, () -> productService.searchProducts("  ", PageRequest.of(0, 10)));
+    }
+}
@@ -0,0 +1,140 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.dto.response.OrderDTO;
+import com.demo.smartShop.dto.response.OrderItemDTO;
+import com.demo.smartShop.dto.response.PaymentDTO;
+import com.demo.smartShop.entity.Client;
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.entity.StockReservation;
+import com.demo.smartShop.entity.enums.OrderStatus;
+import com.demo.smartShop.entity.enums.PaymentType;
+import com.demo.smartShop.entity.enums.ReservationStatus;
+import com.demo.smartShop.repository.ClientRepository;
+import com.demo.smartShop.repository.OrderRepository;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.repository.StockReservationRepository;
+import com.demo.smartShop.service.OrderService;
+import com.demo.smartShop.service.PaymentService;
+import com.demo.smartShop.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour la libération automatique des réservations expirées.
+ */
+@SpringBootTest
+@DisplayName("ReservationServiceImpl Tests")
+class ReservationServiceImplTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private Client client;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder()
+                .nom("Reservation Client")
+                .email("reservation-" + System.nanoTime() + "@test.com")
+                .build());
+        product = productRepository.save(Product.builder()
+                .nom("Souris").price(new BigDecimal("20.00")).stock(10).build());
+    }
+
+    @Test
+    @DisplayName("Devrait libérer le stock d'une commande PENDING impayée expirée")
+    void shouldReleaseExpiredUnpaidOrder() {
+        OrderDTO order = createOrder(3);
+        assertEquals(7, stockOf(product));
+        expire(order.getId());
+
+        reservationService.releaseExpiredReservations();
+
+        assertEquals(OrderStatus.CANCELED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+        assertEquals(10, stockOf(product));
+        assertTrue(reservationsOf(order.getId()).stream()
+                .allMatch(r -> r.getStatus() == ReservationStatus.RELEASED));
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas libérer une commande ayant reçu un paiement")
+    void shouldKeepReservationOfPaidOrder() {
+        OrderDTO order = createOrder(2);
+        paymentService.addPayment(PaymentDTO.builder()
+                .orderId(order.getId())
+                .amount(new BigDecimal("10.00"))
+                .type(PaymentType.ESPECES)
+                .build());
+        expire(order.getId());
+
+        reservationService.releaseExpiredReservations();
+
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+        assertEquals(8, stockOf(product));
+    }
+
+    @Test
+    @DisplayName("Devrait libérer la réservation à l'annulation manuelle")
+    void shouldReleaseReservationOnCancel() {
+        OrderDTO order = createOrder(4);
+
+        orderService.cancelOrder(order.getId());
+
+        assertEquals(10, stockOf(product));
+        assertTrue(reservationsOf(order.getId()).stream()
+                .allMatch(r -> r.getStatus() == ReservationStatus.RELEASED));
+    }
+
+    private OrderDTO createOrder(int quantity) {
+        return orderService.createOrder(OrderDTO.builder()
+                .clientId(client.getId())
+                .items(List.of(OrderItemDTO.builder().productId(product.getId()).quantity(quantity).build()))
+                .build());
+    }
+
+    private void expire(Long orderId) {
+        List<StockReservation> reservations = reservationsOf(orderId);
+        assertFalse(reservations.isEmpty());
+        reservations.forEach(r -> r.setExpiresAt(LocalDateTime.now().minusMinutes(1)));
+        reservationRepository.saveAll(reservations);
+    }
+
+    private List<StockReservation> reservationsOf(Long orderId) {
+        return reservationRepository.findAll().stream()
+                .filter(r -> r.getOrder().getId().equals(orderId))
+                .collect(Collectors.toList());
+    }
+
+    private int stockOf(Product p) {
+        return productRepository.findById(p.getId()).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,98 @@
+package com.demo.smartShop.service.impl;
+
+import com.demo.smartShop.entity.Product;
+import com.demo.smartShop.exception.InsufficientStockException;
+import com.demo.smartShop.exception.ResourceNotFoundException;
+import com.demo.smartShop.repository.ProductRepository;
+import com.demo.smartShop.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour StockServiceImpl (décrément conditionnel atomique).
+ */
+@SpringBootTest
+@DisplayName("StockServiceImpl Tests")
+class StockServiceImplTest {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(Product.builder()
+                .nom("Clavier").price(new BigDecimal("49.90")).stock(10).build());
+    }
+
+    @Test
+    @DisplayName("Devrait décrémenter puis incrémenter le stock")
+    void shouldDecrementAndIncrementStock() {
+        stockService.decrementStock(product.getId(), 4);
+        stockService.incrementStock(product.getId(), 1);
+
+        assertEquals(7, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un décrément supérieur au stock sans modifier la ligne")
+    void shouldRefuseDecrementAboveStock() {
+        assertFalse(stockService.tryDecrementStock(product.getId(), 11));
+        assertThrows(InsufficientStockException.class, () -> stockService.decrementStock(product.getId(), 11));
+
+        assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    @DisplayName("Devrait lever ResourceNotFoundException pour un produit inexistant")
+    void shouldThrowWhenProductMissing() {
+        assertThrows(ResourceNotFoundException.class, () -> stockService.decrementStock(-1L, 1));
+        assertThrows(ResourceNotFoundException.class, () -> stockService.incrementStock(-1L, 1));
+    }
+
+    @Test
+    @DisplayName("Ne devrait jamais survendre sous décréments concurrents")
+    void shouldNeverOversellUnderConcurrency() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 40; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                if (stockService.tryDecrementStock(product.getId(), 1)) {
+                    granted.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(10, granted.get());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+}